@@ -0,0 +1,668 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import java.text.MessageFormat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.Trees;
+
+/**
+ * <p>An annotation processor that validates messages of static
+ * {@code usn.i18n.nobundle.I18nItem} fields at compile time and generates a
+ * catalog of the items validated for every class declaring such fields, to be
+ * read at runtime via {@code usn.i18n.nobundle.I18nCatalogIndex}.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>The processor looks at fields initialized like
+ * {@code new I18nItem1<String> (lm ("en", "Hi {0}!"), lm ("fr", "Salut {0}!"))}
+ * with locale tags and messages given as string literals, and reports:</p>
+ * <ul>
+ *   <li>an error for a message that is not a valid
+ *       {@link MessageFormat} pattern;</li>
+ *   <li>a warning for a message referring to an argument beyond the number of
+ *       arguments taken by its item;</li>
+ *   <li>a warning for a locale tag that is not a well-formed BCP 47 language
+ *       tag, like {@code "fr_CA"};</li>
+ *   <li>a warning for a locale tag given more than once for an item.</li>
+ * </ul>
+ * 
+ * <p>Messages of {@code I18nItem0} and {@code I18nItemInContext0} items are
+ * never formatted and hence not validated as patterns. Fields initialized in
+ * any other way are left out of the catalog.</p>
+ * 
+ * <p>Static {@code usn.i18n.nobundle.I18nEnum} fields initialized like
+ * {@code new I18nEnum<Color> (Color.class, labels ("en", "Red", "Green"))}
+ * are checked for completeness, with an error reported for a locale giving
+ * more or fewer labels than there are enum constants, and with locale tags
+ * checked as above. Labels passed as an array, like
+ * {@code labels ("en", EN_LABELS)}, are not counted. Such fields are not
+ * indexed.</p>
+ * 
+ * <p>For a class like {@code com.example.Messages} the catalog is generated as
+ * {@code com.example.Messages_I18nIndex}. The processor is picked up by
+ * {@code javac} automatically once on the class path.</p>
+ */
+@SupportedAnnotationTypes ("*")
+public class I18nCatalogProcessor
+    extends AbstractProcessor
+  {
+    /**
+     * The name of the base item class.
+     */
+    static final String ITEM_CLASS_NAME = "usn.i18n.nobundle.I18nItem";
+
+    /**
+     * The name of the localized enum class.
+     */
+    static final String ENUM_CLASS_NAME = "usn.i18n.nobundle.I18nEnum";
+
+    /**
+     * The suffix appended to a holder class name to obtain the name of the
+     * generated index class; to match {@code I18nCatalogIndex}.
+     */
+    static final String INDEX_CLASS_SUFFIX = "_I18nIndex";
+
+    /**
+     * Argument counts for item classes, by class names, {@code -1} standing
+     * for an arbitrary count.
+     */
+    private static final Map<String, Integer> argumentCounts =
+        new LinkedHashMap<String, Integer> ();
+    static
+      {
+        for (String prefix : new String [] {ITEM_CLASS_NAME,
+                                            ITEM_CLASS_NAME + "InContext"})
+          {
+            argumentCounts.put (prefix + "0", 0);
+            argumentCounts.put (prefix + "1", 1);
+            argumentCounts.put (prefix + "2", 2);
+            argumentCounts.put (prefix + "3", 3);
+            argumentCounts.put (prefix + "Any", -1);
+          }
+      }
+
+    /**
+     * The compiler tree facility, or {@code null} if not available in the
+     * current compiler.
+     */
+    private Trees trees = null;
+
+    /**
+     * A data holder for an item field found in a holder class.
+     */
+    private static class IndexedItem
+      {
+        /**
+         * The name of the field.
+         */
+        final String fieldName;
+        /**
+         * The formatting argument count, {@code -1} standing for an arbitrary
+         * count.
+         */
+        final int argumentCount;
+        /**
+         * Messages by locale tags, with the last message winning and the
+         * locale keeping its first position, just like at runtime.
+         */
+        final Map<String, String> messages =
+            new LinkedHashMap<String, String> ();
+
+        /**
+         * The constructor.
+         * 
+         * @param fieldName the name of the field
+         * @param argumentCount the formatting argument count
+         */
+        IndexedItem (String fieldName, int argumentCount)
+          {
+            this.fieldName = fieldName;
+            this.argumentCount = argumentCount;
+          } // IndexedItem
+      } // class IndexedItem
+
+    @Override
+    public SourceVersion getSupportedSourceVersion ()
+      {
+        return SourceVersion.latestSupported ();
+      } // getSupportedSourceVersion
+
+    @Override
+    public synchronized void init (ProcessingEnvironment processingEnv)
+      {
+        super.init (processingEnv);
+        try
+          {
+            this.trees = Trees.instance (processingEnv);
+          }
+        catch (IllegalArgumentException e)
+          {
+            // not javac, so no source trees to look at...
+            processingEnv.getMessager ().printMessage
+                (Diagnostic.Kind.NOTE,
+                 "I18nCatalogProcessor is not supported by this compiler " +
+                 "and stays inactive.");
+          }
+      } // init
+
+    @Override
+    public boolean process (Set<? extends TypeElement> annotations,
+                            RoundEnvironment roundEnv)
+      {
+        if (this.trees != null)
+          {
+            for (TypeElement type :
+                   ElementFilter.typesIn (roundEnv.getRootElements ()))
+              {
+                this.processType (type);
+              }
+          }
+        // never claim any annotations, as we do not own any...
+        return false;
+      } // process
+
+    /**
+     * Process a class and its nested classes, validating their item fields
+     * and generating indexes for them.
+     * 
+     * @param type the class to process
+     */
+    private void processType (TypeElement type)
+      {
+        List<IndexedItem> items = new ArrayList<IndexedItem> ();
+        for (VariableElement field :
+               ElementFilter.fieldsIn (type.getEnclosedElements ()))
+          {
+            IndexedItem item = this.processField (field);
+            if (item != null)
+              {
+                items.add (item);
+              }
+          }
+        if (!items.isEmpty ())
+          {
+            this.generateIndex (type, items);
+          }
+        for (TypeElement nested :
+               ElementFilter.typesIn (type.getEnclosedElements ()))
+          {
+            this.processType (nested);
+          }
+      } // processType
+
+    /**
+     * Process a field, validating its messages if it is a static item field
+     * initialized with literal messages.
+     * 
+     * @param field the field to process
+     * @return the item data to be indexed, or {@code null} if not applicable
+     */
+    private IndexedItem processField (VariableElement field)
+      {
+        if (!field.getModifiers ().contains (Modifier.STATIC))
+          {
+            return null;
+          }
+        Integer argumentCount = this.getArgumentCount (field.asType ());
+        if (argumentCount == null)
+          {
+            this.processEnumField (field);
+            return null;
+          }
+        Tree tree = this.trees.getTree (field);
+        if (!(tree instanceof VariableTree))
+          {
+            return null;
+          }
+        ExpressionTree initializer = ((VariableTree) tree).getInitializer ();
+        if (!(initializer instanceof NewClassTree))
+          {
+            return null;
+          }
+        IndexedItem item =
+            new IndexedItem (field.getSimpleName ().toString (), argumentCount);
+        for (ExpressionTree argument :
+               ((NewClassTree) initializer).getArguments ())
+          {
+            if (!(argument instanceof MethodInvocationTree))
+              {
+                return null;
+              }
+            MethodInvocationTree invocation = (MethodInvocationTree) argument;
+            if (!"lm".equals (methodName (invocation.getMethodSelect ())) ||
+                invocation.getArguments ().size () != 2)
+              {
+                return null;
+              }
+            String localeTag =
+                constantString (invocation.getArguments ().get (0));
+            String message = constantString (invocation.getArguments ().get (1));
+            if (localeTag == null || message == null)
+              {
+                return null;
+              }
+            this.validate (field, item, localeTag, message);
+            item.messages.put (localeTag, message);
+          }
+        return item;
+      } // processField
+
+    /**
+     * Validate a localized message of an item, reporting problems found.
+     * 
+     * @param field the item field, for reporting
+     * @param item the item data collected so far
+     * @param localeTag the locale tag of the message
+     * @param message the message
+     */
+    private void validate (VariableElement field, IndexedItem item,
+                           String localeTag, String message)
+      {
+        Messager messager = this.processingEnv.getMessager ();
+        this.validateLocaleTag (field, localeTag);
+        if (item.messages.containsKey (localeTag))
+          {
+            messager.printMessage
+                (Diagnostic.Kind.WARNING,
+                 "Locale tag \"" + localeTag + "\" is given more than once; " +
+                 "the last message wins.", field);
+          }
+        if (item.argumentCount == 0)
+          {
+            return;
+          }
+        MessageFormat messageFormat;
+        try
+          {
+            messageFormat = new MessageFormat (message);
+          }
+        catch (IllegalArgumentException e)
+          {
+            messager.printMessage
+                (Diagnostic.Kind.ERROR,
+                 "Message for locale \"" + localeTag + "\" is not a valid " +
+                 "MessageFormat pattern: " + e.getMessage (), field);
+            return;
+          }
+        int referencedCount = messageFormat.getFormatsByArgumentIndex ().length;
+        if (item.argumentCount > 0 && referencedCount > item.argumentCount)
+          {
+            messager.printMessage
+                (Diagnostic.Kind.WARNING,
+                 "Message for locale \"" + localeTag + "\" refers to argument {" +
+                 (referencedCount - 1) + "} while the item takes " +
+                 item.argumentCount + " argument(s) only.", field);
+          }
+      } // validate
+
+    /**
+     * Validate a locale tag, reporting a tag that is not well-formed.
+     * 
+     * @param field the field, for reporting
+     * @param localeTag the locale tag
+     */
+    private void validateLocaleTag (VariableElement field, String localeTag)
+      {
+        String wellFormedTag = Locale.forLanguageTag (localeTag).toLanguageTag ();
+        if (!wellFormedTag.equalsIgnoreCase (localeTag))
+          {
+            this.processingEnv.getMessager ().printMessage
+                (Diagnostic.Kind.WARNING,
+                 "Locale tag \"" + localeTag + "\" is not a well-formed " +
+                 "BCP 47 language tag and is read as \"" + wellFormedTag +
+                 "\".", field);
+          }
+      } // validateLocaleTag
+
+    /**
+     * Process a field, checking its labels for completeness if it is a static
+     * localized enum field initialized with {@code labels (...)} invocations.
+     * 
+     * @param field the field to process
+     */
+    private void processEnumField (VariableElement field)
+      {
+        TypeMirror type = field.asType ();
+        if (type.getKind () != TypeKind.DECLARED)
+          {
+            return;
+          }
+        DeclaredType declaredType = (DeclaredType) type;
+        if (!((TypeElement) declaredType.asElement ()).getQualifiedName ()
+               .contentEquals (ENUM_CLASS_NAME) ||
+            declaredType.getTypeArguments ().size () != 1)
+          {
+            return;
+          }
+        TypeMirror enumType = declaredType.getTypeArguments ().get (0);
+        if (enumType.getKind () != TypeKind.DECLARED)
+          {
+            return;
+          }
+        int constantCount = 0;
+        for (VariableElement constant : ElementFilter.fieldsIn
+               (((DeclaredType) enumType).asElement ().getEnclosedElements ()))
+          {
+            if (constant.getKind () == ElementKind.ENUM_CONSTANT)
+              {
+                constantCount++;
+              }
+          }
+        Tree tree = this.trees.getTree (field);
+        if (!(tree instanceof VariableTree))
+          {
+            return;
+          }
+        ExpressionTree initializer = ((VariableTree) tree).getInitializer ();
+        if (!(initializer instanceof NewClassTree))
+          {
+            return;
+          }
+        for (ExpressionTree argument :
+               ((NewClassTree) initializer).getArguments ())
+          {
+            if (!(argument instanceof MethodInvocationTree))
+              {
+                continue;
+              }
+            MethodInvocationTree invocation = (MethodInvocationTree) argument;
+            if (!"labels".equals (methodName (invocation.getMethodSelect ())) ||
+                invocation.getArguments ().isEmpty ())
+              {
+                continue;
+              }
+            String localeTag =
+                constantString (invocation.getArguments ().get (0));
+            if (localeTag == null)
+              {
+                continue;
+              }
+            this.validateLocaleTag (field, localeTag);
+            int labelCount = invocation.getArguments ().size () - 1;
+            if (labelCount == 1 &&
+                !this.isSingleLabel (field, invocation.getArguments ().get (1)))
+              {
+                // labels passed as an array cannot be counted at compile time
+                continue;
+              }
+            if (labelCount != constantCount)
+              {
+                this.processingEnv.getMessager ().printMessage
+                    (Diagnostic.Kind.ERROR,
+                     "Locale \"" + localeTag + "\" is given " + labelCount +
+                     " label(s) while " + enumType + " has " + constantCount +
+                     " constant(s).", field);
+              }
+          }
+      } // processEnumField
+
+    /**
+     * Check if the only vararg of a {@code labels} call is an individual
+     * label rather than an array of labels. A string constant is a label; as
+     * for other expressions, their type is looked at if already known, and
+     * they are not taken for labels otherwise.
+     * 
+     * @param field the enum field, to locate the expression with
+     * @param label the expression given as the only vararg
+     * @return {@code true} if the expression is known to be a single label
+     */
+    private boolean isSingleLabel (VariableElement field, ExpressionTree label)
+      {
+        if (constantString (label) != null)
+          {
+            return true;
+          }
+        TreePath fieldPath = this.trees.getPath (field);
+        TreePath path = (fieldPath != null) ?
+            TreePath.getPath (fieldPath.getCompilationUnit (), label) : null;
+        TypeMirror type = (path != null) ? this.trees.getTypeMirror (path) :
+                                           null;
+        return type != null &&
+               type.getKind () != TypeKind.ARRAY &&
+               type.getKind () != TypeKind.ERROR &&
+               type.getKind () != TypeKind.NONE;
+      } // isSingleLabel
+
+    /**
+     * Get the formatting argument count for an item type.
+     * 
+     * @param type the type to look at
+     * @return the argument count, {@code -1} standing for an arbitrary count,
+     *         or {@code null} if not an item type
+     */
+    private Integer getArgumentCount (TypeMirror type)
+      {
+        Integer result = null;
+        while (type.getKind () == TypeKind.DECLARED)
+          {
+            TypeElement element =
+                (TypeElement) ((DeclaredType) type).asElement ();
+            String name = element.getQualifiedName ().toString ();
+            if (result == null)
+              {
+                result = argumentCounts.get (name);
+              }
+            if (name.equals (ITEM_CLASS_NAME))
+              {
+                // just I18nItem or I18nItemInContext, being never formatted
+                // directly, do not restrict arguments...
+                return result != null ? result : -1;
+              }
+            type = element.getSuperclass ();
+          }
+        return null;
+      } // getArgumentCount
+
+    /**
+     * Get the name of a method being invoked.
+     * 
+     * @param methodSelect the method select part of an invocation
+     * @return the simple name of the method
+     */
+    private static String methodName (ExpressionTree methodSelect)
+      {
+        if (methodSelect instanceof IdentifierTree)
+          {
+            return ((IdentifierTree) methodSelect).getName ().toString ();
+          }
+        if (methodSelect instanceof MemberSelectTree)
+          {
+            return ((MemberSelectTree) methodSelect).getIdentifier ()
+                .toString ();
+          }
+        return null;
+      } // methodName
+
+    /**
+     * Evaluate a string constant composed of string literals.
+     * 
+     * @param expression the expression to evaluate
+     * @return the string value, or {@code null} if not a string constant
+     */
+    private static String constantString (ExpressionTree expression)
+      {
+        if (expression instanceof ParenthesizedTree)
+          {
+            return constantString
+                (((ParenthesizedTree) expression).getExpression ());
+          }
+        if (expression instanceof LiteralTree)
+          {
+            Object value = ((LiteralTree) expression).getValue ();
+            return value instanceof String ? (String) value : null;
+          }
+        if (expression.getKind () == Tree.Kind.PLUS)
+          {
+            BinaryTree binary = (BinaryTree) expression;
+            String left = constantString (binary.getLeftOperand ());
+            String right = constantString (binary.getRightOperand ());
+            return left != null && right != null ? left + right : null;
+          }
+        return null;
+      } // constantString
+
+    /**
+     * Generate the index class for a holder class.
+     * 
+     * @param holder the holder class
+     * @param items the items found in the holder class
+     */
+    private void generateIndex (TypeElement holder, List<IndexedItem> items)
+      {
+        PackageElement packageElement =
+            this.processingEnv.getElementUtils ().getPackageOf (holder);
+        String packageName = packageElement.isUnnamed () ? "" :
+            packageElement.getQualifiedName ().toString ();
+        String binaryName = this.processingEnv.getElementUtils ()
+            .getBinaryName (holder).toString ();
+        String simpleName =
+            (packageName.isEmpty () ? binaryName :
+             binaryName.substring (packageName.length () + 1)) +
+            INDEX_CLASS_SUFFIX;
+        StringBuilder source = new StringBuilder ();
+        source.append ("// Generated by ")
+              .append (I18nCatalogProcessor.class.getName ())
+              .append (" from ").append (binaryName)
+              .append (", do not edit.\n\n");
+        if (!packageName.isEmpty ())
+          {
+            source.append ("package ").append (packageName).append (";\n\n");
+          }
+        source.append ("public final class ").append (simpleName).append ("\n")
+              .append ("  {\n");
+        source.append ("    public static final String [] FIELDS =\n        {");
+        for (IndexedItem item : items)
+          {
+            source.append ("\n          ").append (literal (item.fieldName))
+                  .append (",");
+          }
+        source.append ("\n        };\n\n");
+        source.append ("    public static final int [] ARGUMENT_COUNTS =\n" +
+                       "        {");
+        for (IndexedItem item : items)
+          {
+            source.append ("\n          ").append (item.argumentCount)
+                  .append (",");
+          }
+        source.append ("\n        };\n\n");
+        source.append ("    private ").append (simpleName).append (" ()\n")
+              .append ("      {\n")
+              .append ("      }\n\n")
+              .append ("  }\n");
+        String qualifiedName = packageName.isEmpty () ? simpleName :
+            packageName + "." + simpleName;
+        try (Writer writer = this.processingEnv.getFiler ()
+                 .createSourceFile (qualifiedName, holder).openWriter ())
+          {
+            writer.write (source.toString ());
+          }
+        catch (IOException e)
+          {
+            this.processingEnv.getMessager ().printMessage
+                (Diagnostic.Kind.ERROR,
+                 "Failed to generate " + qualifiedName + ": " + e, holder);
+          }
+      } // generateIndex
+
+    /**
+     * Make a Java string literal for a string.
+     * 
+     * @param s the string
+     * @return the string literal, in quotes
+     */
+    static String literal (String s)
+      {
+        StringBuilder result = new StringBuilder (s.length () + 2);
+        result.append ('"');
+        for (int i = 0; i < s.length (); i++)
+          {
+            char c = s.charAt (i);
+            switch (c)
+              {
+                case '"':  result.append ("\\\""); break;
+                case '\\': result.append ("\\\\"); break;
+                case '\n': result.append ("\\n"); break;
+                case '\r': result.append ("\\r"); break;
+                case '\t': result.append ("\\t"); break;
+                default:
+                  if (c < 0x20 || c > 0x7E)
+                    {
+                      result.append (String.format ("\\u%04x", (int) c));
+                    }
+                  else
+                    {
+                      result.append (c);
+                    }
+              }
+          }
+        return result.append ('"').toString ();
+      } // literal
+
+  } // class I18nCatalogProcessor
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.lang.ref.SoftReference;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+/**
+ * <p>A {@link MessageStore} implementation that keeps messages as UTF-8 bytes
+ * in a {@link CatalogFile} buffer, decoding them on access, and optionally
+ * falls back to a base store for locales not found in the buffer; not
+ * intended to be used by applications directly.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Locales of the base store keep their positions, with locales found only
+ * in the buffer appended after them.</p>
+ * 
+ * <p>A store may either cache decoded messages softly, along with messages
+ * compiled and escaped as usual, or keep nothing derived from its messages on
+ * the heap at all, decoding, compiling and escaping them anew on every
+ * access. The latter suits catalogs held off-heap in direct or mapped
+ * buffers, so that the heap, and hence the time the garbage collector spends
+ * scanning it, does not grow with the size of the catalog.</p>
+ */
+final class BufferMessageStore
+    extends MessageStore
+  {
+    /**
+     * The store to take messages from for locales not found in the buffer,
+     * or {@code null} if none.
+     */
+    final MessageStore base;
+
+    /**
+     * The object that has created this store, to let it recognize its own
+     * stores later.
+     */
+    final Object owner;
+
+    /**
+     * The catalog holding the buffer.
+     */
+    private final CatalogFile catalog;
+
+    /**
+     * Absolute offsets of messages in the buffer, index by index with
+     * {@link #localeTags}, or {@code -1} for messages to be taken from the
+     * base store.
+     */
+    private final int [] offsets;
+
+    /**
+     * Lengths of messages in bytes, index by index with {@link #localeTags}.
+     */
+    private final int [] lengths;
+
+    /**
+     * Whether messages decoded from the buffer and data derived from them are
+     * cached on the heap.
+     */
+    private final boolean cached;
+
+    /**
+     * Messages decoded from the buffer, index by index with
+     * {@link #localeTags}, or {@code null} if none decoded or evicted, or if
+     * not {@link #cached}.
+     */
+    private volatile SoftReference<String []> decoded = null;
+
+    /**
+     * The constructor taking messages of a catalog entry on top of a base
+     * store.
+     * 
+     * @param base the store to take messages from for locales not found in
+     *             the entry, or {@code null} if none
+     * @param catalog the catalog holding the buffer
+     * @param entry the entry of the catalog
+     * @param owner the object that creates the store
+     * @param cached {@code true} to cache decoded messages and data derived
+     *               from them on the heap, {@code false} to keep nothing of
+     *               them on the heap
+     */
+    BufferMessageStore (MessageStore base, CatalogFile catalog,
+                        CatalogFile.Entry entry, Object owner, boolean cached)
+      {
+        super (mergeLocaleTags (base, catalog, entry));
+        this.base = base;
+        this.owner = owner;
+        this.catalog = catalog;
+        this.cached = cached;
+        this.offsets = new int [this.localeTags.length];
+        this.lengths = new int [this.localeTags.length];
+        Arrays.fill (this.offsets, -1);
+        for (int i = 0; i < entry.offsets.length; i++)
+          {
+            int index = this.indexOf
+                (catalog.localeTags [entry.localeIndexes [i]]);
+            this.offsets [index] = entry.offsets [i];
+            this.lengths [index] = entry.lengths [i];
+          }
+      } // BufferMessageStore
+
+    /**
+     * Merge locale tags of a base store and of a catalog entry.
+     * 
+     * @param base the base store, or {@code null} if none
+     * @param catalog the catalog
+     * @param entry the entry of the catalog
+     * @return locale tags of the base store followed by those found only in
+     *         the entry
+     */
+    private static String [] mergeLocaleTags (MessageStore base,
+                                              CatalogFile catalog,
+                                              CatalogFile.Entry entry)
+      {
+        LinkedHashSet<String> localeTags = new LinkedHashSet<String> ();
+        if (base != null)
+          {
+            Collections.addAll (localeTags, base.localeTags);
+          }
+        for (int localeIndex : entry.localeIndexes)
+          {
+            localeTags.add (catalog.localeTags [localeIndex]);
+          }
+        return localeTags.toArray (new String [0]);
+      } // mergeLocaleTags
+
+    /**
+     * Get the message for a locale, decoding it from the buffer. Should the
+     * store be {@link #cached}, the message is cached softly, so that repeated
+     * lookups do not decode it anew while decoded messages may still be
+     * reclaimed under memory pressure, and is shared via the installed
+     * {@link I18nMessagePool}, if any.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @return the message
+     */
+    @Override
+    String message (int index)
+      {
+        if (this.offsets [index] < 0)
+          {
+            return this.base.message (index);
+          }
+        if (!this.cached)
+          {
+            return this.catalog.decode (this.offsets [index],
+                                        this.lengths [index]);
+          }
+        SoftReference<String []> reference = this.decoded;
+        String [] decoded = (reference != null) ? reference.get () : null;
+        if (decoded == null)
+          {
+            decoded = new String [this.offsets.length];
+            this.decoded = new SoftReference<String []> (decoded);
+          }
+        String message = decoded [index];
+        if (message == null)
+          {
+            // racy, but harmless: strings are immutable and equal anyway
+            message = I18nMessagePool.pooled
+                          (this.catalog.decode (this.offsets [index],
+                                                this.lengths [index]));
+            decoded [index] = message;
+          }
+        return message;
+      } // message
+
+    /**
+     * Get the message for a locale escaped for markup, escaping it anew on
+     * every call unless the store is {@link #cached}.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @param escaping the markup context to escape for
+     * @return the message, escaped
+     */
+    @Override
+    String escapedMessage (int index, Escaping escaping)
+      {
+        return this.cached ?
+                 super.escapedMessage (index, escaping) :
+                 escaping.escape (this.message (index));
+      } // escapedMessage
+
+    /**
+     * Get the message for a locale compiled for formatting, compiling it anew
+     * on every call unless the store is {@link #cached}.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @return the compiled message
+     * @throws IllegalArgumentException should the message be not a valid
+     *                                  pattern
+     */
+    @Override
+    CompiledMessage compiledMessage (int index)
+        throws IllegalArgumentException
+      {
+        return this.cached ?
+                 super.compiledMessage (index) :
+                 new CompiledMessage (this.message (index),
+                                      I18nHandler.localeForLanguageTag
+                                        (this.localeTags [index]));
+      } // compiledMessage
+
+    /**
+     * Compile messages ahead of use, unless the store is not {@link #cached},
+     * as that would decode all messages only to drop them.
+     */
+    @Override
+    void precompile ()
+      {
+        if (this.cached)
+          {
+            super.precompile ();
+          }
+      } // precompile
+
+    /**
+     * Write the message for a locale as UTF-8 bytes, copying them from the
+     * buffer as they are, without decoding.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @param output the stream to write to
+     * @throws IOException as thrown by the stream
+     */
+    @Override
+    void writeMessage (int index, OutputStream output)
+        throws IOException
+      {
+        if (this.offsets [index] >= 0)
+          {
+            this.catalog.writeTo (this.offsets [index], this.lengths [index],
+                                  output);
+          }
+        else
+          {
+            this.base.writeMessage (index, output);
+          }
+      } // writeMessage
+
+  } // class BufferMessageStore
@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>A compact binary catalog of messages for named {@link I18nItem}
+ * instances, as read from a buffer, typically a memory-mapped file; not
+ * intended to be used by applications directly.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>The catalog layout, with all integers being 4-byte big-endian and all
+ * strings being UTF-8 bytes preceded by their length as an integer, is as
+ * follows:</p>
+ * <ul>
+ * <li>magic number {@link #MAGIC} and format version {@link #VERSION};</li>
+ * <li>the locale table: the number of locales followed by their
+ *     {@link Locale#toLanguageTag() language tags}; locales are referred to by
+ *     their index in the table;</li>
+ * <li>the item table: the number of items followed by, for every item, its
+ *     key, the number of its messages and, for every message, the locale index
+ *     and the offset and the length of the message in the message area;</li>
+ * <li>the message area: its length followed by UTF-8 bytes of all
+ *     messages, with identical messages being stored once and shared by all
+ *     entries referring to them.</li>
+ * </ul>
+ * 
+ * <p>Only the tables are parsed upon reading; messages stay in the buffer and
+ * are decoded on access.</p>
+ */
+final class CatalogFile
+  {
+    /**
+     * The magic number of catalog files, "I18N" in ASCII.
+     */
+    static final int MAGIC = 0x4931384E;
+
+    /**
+     * The format version of catalog files.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The character set for all strings in catalog files.
+     */
+    static final Charset UTF_8 = Charset.forName ("UTF-8");
+
+    /**
+     * Messages of one item as found in the catalog.
+     */
+    static final class Entry
+      {
+        /**
+         * Indexes of locales in {@link CatalogFile#localeTags}, message by
+         * message.
+         */
+        final int [] localeIndexes;
+
+        /**
+         * Absolute offsets of messages in the buffer.
+         */
+        final int [] offsets;
+
+        /**
+         * Lengths of messages in bytes.
+         */
+        final int [] lengths;
+
+        Entry (int count)
+          {
+            this.localeIndexes = new int [count];
+            this.offsets = new int [count];
+            this.lengths = new int [count];
+          } // Entry
+      } // class Entry
+
+    /**
+     * The buffer holding the whole catalog.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * {@link Locale#toLanguageTag() Locale language tags} of the locale table.
+     */
+    final String [] localeTags;
+
+    /**
+     * Item entries, indexed by item keys.
+     */
+    final Map<String, Entry> entries;
+
+    /**
+     * {@link I18nLocaleFallback#languageKey(String) Language keys} of locales
+     * of the locale table, index by index with {@link #localeTags}. Created
+     * lazily.
+     */
+    private volatile String [] languages = null;
+
+    /**
+     * The constructor parsing the tables of a catalog.
+     * 
+     * @param buffer a buffer holding the whole catalog
+     * @throws IOException should the buffer not hold a valid catalog
+     */
+    CatalogFile (ByteBuffer buffer)
+        throws IOException
+      {
+        this.buffer = buffer;
+        ByteBuffer input = buffer.duplicate ();
+        try
+          {
+            if (input.getInt () != MAGIC || input.getInt () != VERSION)
+              {
+                throw new IOException ("Not an i18n catalog of version " +
+                                       VERSION);
+              }
+            // every locale takes at least its length prefix
+            this.localeTags = new String [readCount (input, 4)];
+            for (int i = 0; i < this.localeTags.length; i++)
+              {
+                this.localeTags [i] = readString (input);
+              }
+            // every item takes at least its key length and message count
+            int itemCount = readCount (input, 8);
+            HashMap<String, Entry> entries = new HashMap<String, Entry> ();
+            for (int i = 0; i < itemCount; i++)
+              {
+                String key = readString (input);
+                // every message takes its locale index, offset and length
+                Entry entry = new Entry (readCount (input, 12));
+                for (int j = 0; j < entry.offsets.length; j++)
+                  {
+                    entry.localeIndexes [j] = input.getInt ();
+                    entry.offsets [j] = input.getInt ();
+                    entry.lengths [j] = input.getInt ();
+                  }
+                entries.put (key, entry);
+              }
+            int messageAreaLength = input.getInt ();
+            int messageAreaOffset = input.position ();
+            if (messageAreaLength < 0 || messageAreaLength > input.remaining ())
+              {
+                throw new IOException ("Truncated i18n catalog");
+              }
+            // make offsets absolute and validate them against the area
+            for (Entry entry : entries.values ())
+              {
+                for (int j = 0; j < entry.offsets.length; j++)
+                  {
+                    if (entry.localeIndexes [j] < 0 ||
+                        entry.localeIndexes [j] >= this.localeTags.length ||
+                        entry.offsets [j] < 0 ||
+                        entry.lengths [j] < 0 ||
+                        (long) entry.offsets [j] + entry.lengths [j] >
+                          messageAreaLength)
+                      {
+                        throw new IOException ("Corrupt i18n catalog");
+                      }
+                    entry.offsets [j] += messageAreaOffset;
+                  }
+              }
+            this.entries = entries;
+          }
+        catch (BufferUnderflowException e)
+          {
+            throw new IOException ("Truncated i18n catalog", e);
+          }
+      } // CatalogFile
+
+    /**
+     * Map a catalog file into memory and parse its tables. The file may be
+     * closed right after mapping, and the mapping stays valid for as long as
+     * the catalog is in use.
+     * 
+     * @param file the catalog file
+     * @return a new catalog
+     * @throws IOException should the file be unreadable or not hold a valid
+     *                     catalog
+     */
+    static CatalogFile map (Path file)
+        throws IOException
+      {
+        try (FileChannel channel =
+                 FileChannel.open (file, StandardOpenOption.READ))
+          {
+            return new CatalogFile
+                (channel.map (FileChannel.MapMode.READ_ONLY,
+                              0, channel.size ()));
+          }
+      } // map
+
+    /**
+     * Read the number of records to follow, validating it against the bytes
+     * remaining, so that a corrupt count may not cause a huge or negative
+     * allocation.
+     * 
+     * @param input the buffer to read from
+     * @param minRecordSize the minimum size of a record in bytes
+     * @return the number of records
+     * @throws IOException should the number be invalid
+     */
+    private static int readCount (ByteBuffer input, int minRecordSize)
+        throws IOException
+      {
+        int count = input.getInt ();
+        if (count < 0 || count > input.remaining () / minRecordSize)
+          {
+            throw new IOException ("Corrupt i18n catalog");
+          }
+        return count;
+      } // readCount
+
+    /**
+     * Read a length-prefixed UTF-8 string.
+     * 
+     * @param input the buffer to read from
+     * @return the string
+     * @throws IOException should the length be invalid
+     */
+    private static String readString (ByteBuffer input)
+        throws IOException
+      {
+        int length = input.getInt ();
+        if (length < 0 || length > input.remaining ())
+          {
+            throw new IOException ("Corrupt i18n catalog");
+          }
+        ByteBuffer slice = input.slice ();
+        slice.limit (length);
+        input.position (input.position () + length);
+        return UTF_8.decode (slice).toString ();
+      } // readString
+
+    /**
+     * Get language keys of locales of the locale table, extracting them on
+     * first use.
+     * 
+     * @return languages, index by index with {@link #localeTags}
+     */
+    String [] getLanguages ()
+      {
+        String [] languages = this.languages;
+        if (languages == null)
+          {
+            languages = new String [this.localeTags.length];
+            for (int i = 0; i < languages.length; i++)
+              {
+                languages [i] =
+                    I18nLocaleFallback.languageKey (this.localeTags [i]);
+              }
+            this.languages = languages;
+          }
+        return languages;
+      } // getLanguages
+
+    /**
+     * Decode a message from the buffer. The buffer itself is not modified,
+     * so the method may be called by several threads at once.
+     * 
+     * @param offset the absolute offset of the message
+     * @param length the length of the message in bytes
+     * @return the message
+     */
+    String decode (int offset, int length)
+      {
+        ByteBuffer slice = this.buffer.duplicate ();
+        slice.position (offset);
+        slice.limit (offset + length);
+        return UTF_8.decode (slice).toString ();
+      } // decode
+
+    /**
+     * Write a message from the buffer to a stream as UTF-8 bytes, without
+     * decoding it. The buffer itself is not modified, so the method may be
+     * called by several threads at once.
+     * 
+     * @param offset the absolute offset of the message
+     * @param length the length of the message in bytes
+     * @param output the stream to write to
+     * @throws IOException as thrown by the stream
+     */
+    void writeTo (int offset, int length, OutputStream output)
+        throws IOException
+      {
+        ByteBuffer slice = this.buffer.duplicate ();
+        slice.position (offset);
+        slice.limit (offset + length);
+        if (slice.hasArray ())
+          {
+            output.write (slice.array (), slice.arrayOffset () + offset,
+                          length);
+          }
+        else
+          {
+            // direct or mapped buffers are copied chunk by chunk
+            Channels.newChannel (output).write (slice);
+          }
+      } // writeTo
+
+    /**
+     * Write a catalog, storing identical messages once.
+     * 
+     * @param output the stream to write to
+     * @param items translations of messages, indexed by item keys
+     * @throws IOException as thrown by the stream
+     */
+    static void write (OutputStream output,
+                       Map<String, LocalizedMessage []> items)
+        throws IOException
+      {
+        LinkedHashMap<String, Integer> localeIndexes =
+            new LinkedHashMap<String, Integer> ();
+        ByteArrayOutputStream messageArea = new ByteArrayOutputStream ();
+        // offsets and lengths of messages already written, by messages
+        HashMap<String, int []> messagePool = new HashMap<String, int []> ();
+        ByteArrayOutputStream itemTable = new ByteArrayOutputStream ();
+        DataOutputStream itemOutput = new DataOutputStream (itemTable);
+        itemOutput.writeInt (items.size ());
+        for (Map.Entry<String, LocalizedMessage []> item : items.entrySet ())
+          {
+            writeString (itemOutput, item.getKey ());
+            itemOutput.writeInt (item.getValue ().length);
+            for (LocalizedMessage lm : item.getValue ())
+              {
+                Integer localeIndex = localeIndexes.get (lm.localeTag);
+                if (localeIndex == null)
+                  {
+                    localeIndex = localeIndexes.size ();
+                    localeIndexes.put (lm.localeTag, localeIndex);
+                  }
+                int [] pooled = messagePool.get (lm.message);
+                if (pooled == null)
+                  {
+                    byte [] bytes = lm.message.getBytes (UTF_8);
+                    pooled = new int [] {messageArea.size (), bytes.length};
+                    messageArea.write (bytes);
+                    messagePool.put (lm.message, pooled);
+                  }
+                itemOutput.writeInt (localeIndex);
+                itemOutput.writeInt (pooled [0]);
+                itemOutput.writeInt (pooled [1]);
+              }
+          }
+        itemOutput.flush ();
+        DataOutputStream dataOutput =
+            new DataOutputStream (new BufferedOutputStream (output));
+        dataOutput.writeInt (MAGIC);
+        dataOutput.writeInt (VERSION);
+        dataOutput.writeInt (localeIndexes.size ());
+        for (String localeTag : localeIndexes.keySet ())
+          {
+            writeString (dataOutput, localeTag);
+          }
+        itemTable.writeTo (dataOutput);
+        dataOutput.writeInt (messageArea.size ());
+        messageArea.writeTo (dataOutput);
+        dataOutput.flush ();
+      } // write
+
+    /**
+     * Write a length-prefixed UTF-8 string.
+     * 
+     * @param output the stream to write to
+     * @param string the string
+     * @throws IOException as thrown by the stream
+     */
+    private static void writeString (DataOutputStream output, String string)
+        throws IOException
+      {
+        byte [] bytes = string.getBytes (UTF_8);
+        output.writeInt (bytes.length);
+        output.write (bytes);
+      } // writeString
+
+  } // class CatalogFile
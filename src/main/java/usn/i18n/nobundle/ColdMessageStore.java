@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+/**
+ * <p>A {@link MessageStore} implementation that takes messages from per-locale
+ * tables of an {@link I18nColdCatalog}, with tables being materialized on
+ * first access only; not intended to be used by applications directly.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ */
+final class ColdMessageStore
+    extends MessageStore
+  {
+    /**
+     * Tables holding messages, index by index with {@link #localeTags}.
+     */
+    private final I18nColdCatalog.LocaleTable [] tables;
+
+    /**
+     * Positions of messages in their tables, index by index with
+     * {@link #localeTags}.
+     */
+    private final int [] slots;
+
+    /**
+     * The constructor.
+     * 
+     * @param localeTags locale language tags for the locales available
+     * @param tables tables holding messages, index by index with
+     *               {@code localeTags}
+     * @param slots positions of messages in their tables, index by index with
+     *              {@code localeTags}
+     */
+    ColdMessageStore (String [] localeTags,
+                      I18nColdCatalog.LocaleTable [] tables, int [] slots)
+      {
+        super (localeTags);
+        this.tables = tables;
+        this.slots = slots;
+      } // ColdMessageStore
+
+    /**
+     * Create a store for another item having the same locales, sharing locale
+     * tags, tables and languages with this store.
+     * 
+     * @param slots positions of messages of the other item in their tables
+     * @return a new store
+     */
+    ColdMessageStore withSlots (int [] slots)
+      {
+        ColdMessageStore store =
+            new ColdMessageStore (this.localeTags, this.tables, slots);
+        store.presetLanguages (this.getLanguages ());
+        return store;
+      } // withSlots
+
+    /**
+     * Get the message for a locale, materializing its table if necessary.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @return the message
+     */
+    @Override
+    String message (int index)
+      {
+        return this.tables [index].materialize ().messages
+                 [this.slots [index]];
+      } // message
+
+    /**
+     * Get the message for a locale escaped for markup, as cached by its
+     * table rather than by this store, so that it is evicted along with the
+     * table.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @param escaping the markup context to escape for
+     * @return the message, escaped
+     */
+    @Override
+    String escapedMessage (int index, Escaping escaping)
+      {
+        return this.tables [index].materialize ()
+                   .escapedMessage (this.slots [index], escaping);
+      } // escapedMessage
+
+    /**
+     * Get the message for a locale compiled for formatting, as cached by its
+     * table rather than by this store, so that it is evicted along with the
+     * table.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @return the compiled message
+     * @throws IllegalArgumentException should the message be not a valid
+     *                                  pattern
+     */
+    @Override
+    CompiledMessage compiledMessage (int index)
+        throws IllegalArgumentException
+      {
+        return this.tables [index].materialize ()
+                   .compiledMessage (this.slots [index],
+                                     this.localeTags [index]);
+      } // compiledMessage
+
+    /**
+     * Do not compile messages ahead of use, as that would materialize tables
+     * of all locales and keep them compiled.
+     */
+    @Override
+    void precompile ()
+      {
+        // cold stores are compiled on demand only
+      } // precompile
+
+  } // class ColdMessageStore
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.text.DateFormat;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A message pattern compiled for a particular locale, to be reused for any
+ * number of formatting calls; not intended to be used by applications
+ * directly.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Patterns where every format element is a plain {@code {n}} reference,
+ * which is by far the most common case, are split into literal segments and
+ * argument indexes once upon compilation, and are further formatted with an
+ * unsynchronized {@link StringBuilder}, with arguments rendered exactly the way
+ * {@link MessageFormat} would render them. Other patterns are formatted by a
+ * clone of a {@link MessageFormat} instance parsed once upon compilation. The
+ * output is identical to that of {@link MessageFormat} in both cases.</p>
+ * 
+ * <p>Messages may also be formatted escaped for markup, with literal segments
+ * of split patterns escaped once and cached, so that only arguments get
+ * escaped with every formatting call.</p>
+ * 
+ * <p>Instances are immutable and may be shared between threads.</p>
+ */
+final class CompiledMessage
+  {
+    /**
+     * The first character of a private use area range used to mark argument
+     * positions while splitting a pattern.
+     */
+    private static final char MARKER_BASE = '\uE000';
+
+    /**
+     * The maximum number of arguments a pattern may refer to for being split.
+     */
+    private static final int MARKER_COUNT = 0x0100;
+
+    /**
+     * The pattern this instance has been compiled from.
+     */
+    final String pattern;
+
+    /**
+     * The locale to format arguments for.
+     */
+    final Locale locale;
+
+    /**
+     * Literal segments of a split pattern, one more than
+     * {@link #argumentIndexes}; {@code null} if the pattern is not split.
+     */
+    private final String [] literals;
+
+    /**
+     * Argument indexes of a split pattern, in order of their appearance.
+     */
+    private final int [] argumentIndexes;
+
+    /**
+     * A parsed pattern for patterns that are not split, to be cloned for
+     * every formatting call.
+     */
+    private final MessageFormat messageFormat;
+
+    /**
+     * Literal segments of a split pattern escaped for markup, indexed by
+     * {@link Escaping#ordinal()}. Created lazily; every element is a fully
+     * built array published by a volatile store.
+     */
+    private volatile AtomicReferenceArray<String []> escapedLiterals = null;
+
+    /**
+     * The constructor.
+     * 
+     * @param pattern a message pattern in {@link MessageFormat} style
+     * @param locale the locale to format arguments for
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    CompiledMessage (String pattern, Locale locale)
+        throws IllegalArgumentException
+      {
+        this.pattern = pattern;
+        this.locale = locale;
+        MessageFormat messageFormat = new MessageFormat (pattern, locale);
+        String [] literals = null;
+        int [] argumentIndexes = null;
+        if (isSplittable (pattern, messageFormat))
+          {
+            // format the pattern with markers for arguments and then split
+            // the result at the markers, so to have literal segments
+            // unquoted exactly like MessageFormat itself does it
+            int argumentCount =
+                messageFormat.getFormatsByArgumentIndex ().length;
+            Object [] markers = new Object [argumentCount];
+            for (int i = 0; i < argumentCount; i++)
+              {
+                markers [i] = String.valueOf ((char) (MARKER_BASE + i));
+              }
+            String marked = messageFormat.format (markers);
+            ArrayList<String> literalList = new ArrayList<String> ();
+            ArrayList<Integer> indexList = new ArrayList<Integer> ();
+            int start = 0;
+            for (int i = 0; i < marked.length (); i++)
+              {
+                char c = marked.charAt (i);
+                if (c >= MARKER_BASE && c < MARKER_BASE + argumentCount)
+                  {
+                    literalList.add (marked.substring (start, i));
+                    indexList.add (c - MARKER_BASE);
+                    start = i + 1;
+                  }
+              }
+            literalList.add (marked.substring (start));
+            literals = literalList.toArray (new String [0]);
+            argumentIndexes = new int [indexList.size ()];
+            for (int i = 0; i < argumentIndexes.length; i++)
+              {
+                argumentIndexes [i] = indexList.get (i);
+              }
+            messageFormat = null;
+          }
+        this.literals = literals;
+        this.argumentIndexes = argumentIndexes;
+        this.messageFormat = messageFormat;
+      } // CompiledMessage
+
+    /**
+     * Check whether a parsed pattern may be split into literal segments and
+     * plain argument references.
+     * 
+     * @param pattern the pattern
+     * @param messageFormat the pattern as parsed
+     * @return {@code true} if the pattern may be split
+     */
+    private static boolean isSplittable (String pattern,
+                                         MessageFormat messageFormat)
+      {
+        for (Format format : messageFormat.getFormats ())
+          {
+            if (format != null)
+              {
+                return false;
+              }
+          }
+        if (messageFormat.getFormatsByArgumentIndex ().length > MARKER_COUNT)
+          {
+            return false;
+          }
+        for (int i = 0; i < pattern.length (); i++)
+          {
+            char c = pattern.charAt (i);
+            if (c >= MARKER_BASE && c < MARKER_BASE + MARKER_COUNT)
+              {
+                return false;
+              }
+          }
+        return true;
+      } // isSplittable
+
+    /**
+     * Format the message with given arguments.
+     * 
+     * @param arguments message formatting arguments, may be {@code null}
+     * @return the formatted message
+     */
+    String format (Object [] arguments)
+      {
+        if (this.literals == null)
+          {
+            MessageFormat messageFormat =
+                (MessageFormat) this.messageFormat.clone ();
+            return messageFormat.format (arguments, new StringBuffer (), null)
+                                .toString ();
+          }
+        return this.format (arguments, this.literals, null);
+      } // format
+
+    /**
+     * Format the message with given arguments, escaped for markup. The output
+     * is identical to that of {@link #format(Object[])} escaped as a whole.
+     * 
+     * @param arguments message formatting arguments, may be {@code null}
+     * @param escaping the markup context to escape for
+     * @return the formatted message, escaped
+     */
+    String format (Object [] arguments, Escaping escaping)
+      {
+        if (this.literals == null)
+          {
+            return escaping.escape (this.format (arguments));
+          }
+        return this.format (arguments, this.escapedLiterals (escaping),
+                            escaping);
+      } // format
+
+    /**
+     * Get literal segments of a split pattern escaped for markup, escaping
+     * and caching them on first use.
+     * 
+     * @param escaping the markup context to escape for
+     * @return literal segments, escaped
+     */
+    private String [] escapedLiterals (Escaping escaping)
+      {
+        AtomicReferenceArray<String []> escapedLiterals =
+            this.escapedLiterals;
+        if (escapedLiterals == null)
+          {
+            escapedLiterals = new AtomicReferenceArray<String []>
+                                (Escaping.values ().length);
+            this.escapedLiterals = escapedLiterals;
+          }
+        // concurrent callers may escape literals more than once and keep
+        // their own copies, but every copy is completely built before it is
+        // published, so readers never see a partially filled array
+        String [] literals = escapedLiterals.get (escaping.ordinal ());
+        if (literals == null)
+          {
+            literals = new String [this.literals.length];
+            for (int i = 0; i < literals.length; i++)
+              {
+                literals [i] = escaping.escape (this.literals [i]);
+              }
+            escapedLiterals.set (escaping.ordinal (), literals);
+          }
+        return literals;
+      } // escapedLiterals
+
+    /**
+     * Format a split pattern with given arguments.
+     * 
+     * @param arguments message formatting arguments, may be {@code null}
+     * @param literals literal segments, escaped the same way as arguments
+     * @param escaping the markup context to escape arguments for, or
+     *                 {@code null} to leave them as is
+     * @return the formatted message
+     */
+    private String format (Object [] arguments, String [] literals,
+                           Escaping escaping)
+      {
+        if (this.argumentIndexes.length == 0)
+          {
+            return literals [0];
+          }
+        int argumentCount = (arguments != null) ? arguments.length : 0;
+        StringBuilder result =
+            new StringBuilder (this.pattern.length () + 16 * argumentCount);
+        result.append (literals [0]);
+        for (int i = 0; i < this.argumentIndexes.length; i++)
+          {
+            int argumentIndex = this.argumentIndexes [i];
+            if (argumentIndex >= argumentCount)
+              {
+                result.append ('{').append (argumentIndex).append ('}');
+              }
+            else
+              {
+                String argument =
+                    this.formatArgument (arguments [argumentIndex]);
+                if (escaping == null)
+                  {
+                    result.append (argument);
+                  }
+                else
+                  {
+                    escaping.append (result, argument);
+                  }
+              }
+            result.append (literals [i + 1]);
+          }
+        return result.toString ();
+      } // format
+
+    /**
+     * Render an argument for a plain {@code {n}} reference exactly the way
+     * {@link MessageFormat} does it.
+     * 
+     * @param argument the argument
+     * @return the argument as rendered
+     */
+    private String formatArgument (Object argument)
+      {
+        if (argument == null)
+          {
+            return "null";
+          }
+        if (argument instanceof String)
+          {
+            return (String) argument;
+          }
+        if (argument instanceof Number)
+          {
+            return NumberFormat.getInstance (this.locale).format (argument);
+          }
+        if (argument instanceof Date)
+          {
+            return DateFormat.getDateTimeInstance
+                     (DateFormat.SHORT, DateFormat.SHORT, this.locale)
+                       .format (argument);
+          }
+        String result = argument.toString ();
+        return (result != null) ? result : "null";
+      } // formatArgument
+
+  } // class CompiledMessage
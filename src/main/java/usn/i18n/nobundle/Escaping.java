@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+/**
+ * <p>Markup contexts messages may be escaped for; not intended to be used by
+ * applications directly.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Both contexts escape the five characters significant in markup, so
+ * that escaped text is safe both in element content and in attribute values
+ * quoted either way. They differ in the apostrophe only, as {@code &apos;}
+ * is not defined by HTML 4.</p>
+ */
+enum Escaping
+  {
+    /**
+     * Escaping for HTML.
+     */
+    HTML ("&#39;"),
+
+    /**
+     * Escaping for XML.
+     */
+    XML ("&apos;");
+
+    /**
+     * The replacement for the apostrophe.
+     */
+    private final String apostrophe;
+
+    /**
+     * The constructor.
+     * 
+     * @param apostrophe the replacement for the apostrophe
+     */
+    private Escaping (String apostrophe)
+      {
+        this.apostrophe = apostrophe;
+      } // Escaping
+
+    /**
+     * Escape a text.
+     * 
+     * @param text the text
+     * @return the escaped text, or the same text if there is nothing to escape
+     */
+    String escape (String text)
+      {
+        for (int i = 0; i < text.length (); i++)
+          {
+            if (this.replacement (text.charAt (i)) != null)
+              {
+                StringBuilder result = new StringBuilder (text.length () + 16);
+                result.append (text, 0, i);
+                this.append (result, text, i);
+                return result.toString ();
+              }
+          }
+        return text;
+      } // escape
+
+    /**
+     * Append a text to a buffer, escaped.
+     * 
+     * @param buffer the buffer
+     * @param text the text
+     */
+    void append (StringBuilder buffer, String text)
+      {
+        this.append (buffer, text, 0);
+      } // append
+
+    /**
+     * Append a text to a buffer, escaped, starting at a position.
+     * 
+     * @param buffer the buffer
+     * @param text the text
+     * @param start the position to start at
+     */
+    private void append (StringBuilder buffer, String text, int start)
+      {
+        for (int i = start; i < text.length (); i++)
+          {
+            char c = text.charAt (i);
+            String replacement = this.replacement (c);
+            if (replacement != null)
+              {
+                buffer.append (replacement);
+              }
+            else
+              {
+                buffer.append (c);
+              }
+          }
+      } // append
+
+    /**
+     * Get the replacement for a character.
+     * 
+     * @param c the character
+     * @return the replacement, or {@code null} if the character is not to be
+     *         escaped
+     */
+    private String replacement (char c)
+      {
+        switch (c)
+          {
+            case '&':  return "&amp;";
+            case '<':  return "&lt;";
+            case '>':  return "&gt;";
+            case '"':  return "&quot;";
+            case '\'': return this.apostrophe;
+            default:   return null;
+          }
+      } // replacement
+
+  } // enum Escaping
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+/**
+ * <p>The default {@link MessageStore} implementation keeping messages as
+ * ordinary strings on the heap; not intended to be used by applications
+ * directly.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ */
+final class HeapMessageStore
+    extends MessageStore
+  {
+    /**
+     * Messages, index by index with {@link #localeTags}.
+     */
+    private final String [] messages;
+
+    /**
+     * The constructor taking locale tags and messages as parallel arrays.
+     * 
+     * @param localeTags locale language tags for the locales available
+     * @param messages messages, index by index with {@code localeTags}
+     */
+    HeapMessageStore (String [] localeTags, String [] messages)
+      {
+        super (localeTags);
+        this.messages = messages;
+      } // HeapMessageStore
+
+    /**
+     * Create a store from translations as supplied to an {@link I18nItem}
+     * constructor. Should a locale happen to be supplied more than once, the
+     * last message wins, with the locale keeping its first position.
+     * 
+     * @param data an array of translations for a message to various locales
+     * @return a new store
+     */
+    static HeapMessageStore fromLocalizedMessages (LocalizedMessage [] data)
+      {
+        String [] localeTags = new String [data.length];
+        String [] messages = new String [data.length];
+        int count = 0;
+        for (LocalizedMessage lm : data)
+          {
+            int index = 0;
+            while (index < count && !localeTags [index].equals (lm.localeTag))
+              {
+                index++;
+              }
+            if (index == count)
+              {
+                localeTags [count++] = lm.localeTag;
+              }
+            messages [index] = lm.message;
+          }
+        if (count < data.length)
+          {
+            String [] trimmedLocaleTags = new String [count];
+            String [] trimmedMessages = new String [count];
+            System.arraycopy (localeTags, 0, trimmedLocaleTags, 0, count);
+            System.arraycopy (messages, 0, trimmedMessages, 0, count);
+            localeTags = trimmedLocaleTags;
+            messages = trimmedMessages;
+          }
+        return new HeapMessageStore (localeTags, messages);
+      } // fromLocalizedMessages
+
+    @Override
+    String message (int index)
+      {
+        return this.messages [index];
+      } // message
+
+  } // class HeapMessageStore
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>A bulk renderer of the same {@link I18nItem} templates for many
+ * recipients with different locale preferences, like for notification
+ * fan-out.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Recipients are read from an {@link Iterator} in chunks of
+ * {@value #CHUNK_SIZE}, so that any number of them may be streamed through.
+ * Locale preferences are negotiated only once per distinct list of preferred
+ * locales, and recipients of every chunk are grouped by their preferences, so
+ * that the best locale of every template is found once per group, and every
+ * template is compiled once per locale. Recipients are then rendered in
+ * parallel in a dedicated {@link ForkJoinPool}, while the next chunk is being
+ * read and grouped on the calling thread, with results being streamed to a
+ * {@link Sink}.</p>
+ * 
+ * <p>A simple usage example:</p>
+ * <pre>
+ * new I18nBulkRenderer (SUBJECT, BODY).render (recipients,
+ *     new I18nBulkRenderer.Sink&lt;Long&gt; ()
+ *       {
+ *         public void accept (Long userId, String [] messages)
+ *           {
+ *             mailQueue.offer (userId, messages [0], messages [1]);
+ *           }
+ *       });
+ * </pre>
+ */
+public final class I18nBulkRenderer
+  {
+    /**
+     * A recipient to render templates for.
+     * 
+     * @param <TKey> a class identifying recipients
+     */
+    public static final class Recipient<TKey>
+      {
+        /**
+         * The key identifying the recipient.
+         */
+        final TKey key;
+
+        /**
+         * Preferred locales of the recipient.
+         */
+        final String [] localeTags;
+
+        /**
+         * Message formatting arguments.
+         */
+        final Object [] arguments;
+
+        /**
+         * The constructor.
+         * 
+         * @param key the key identifying the recipient, to be passed to the
+         *            {@link Sink} along with results
+         * @param localeTags preferred locales of the recipient represented by
+         *                   their {@link java.util.Locale#toLanguageTag()
+         *                   language tags}, best preferred coming first
+         * @param arguments message formatting arguments, the same for all
+         *                  templates
+         */
+        public Recipient (TKey key, String [] localeTags, Object... arguments)
+          {
+            this.key = key;
+            this.localeTags = localeTags;
+            this.arguments = arguments;
+          } // Recipient
+      } // class Recipient
+
+    /**
+     * A consumer of rendered messages.
+     * 
+     * @param <TKey> a class identifying recipients
+     */
+    public interface Sink<TKey>
+      {
+        /**
+         * Accept messages rendered for a recipient. Called concurrently by
+         * threads of the pool, so implementations are to be thread-safe.
+         * 
+         * @param key the key identifying the recipient
+         * @param messages messages rendered, index by index with templates
+         */
+        void accept (TKey key, String [] messages);
+      } // interface Sink
+
+    /**
+     * The number of recipients to be read and grouped at once.
+     */
+    public static final int CHUNK_SIZE = 4096;
+
+    /**
+     * The number of recipients to be rendered by one task without splitting.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * The maximum number of distinct preference lists to keep negotiated
+     * preferences for.
+     */
+    private static final int MAX_CACHED_PREFERENCES = 4096;
+
+    /**
+     * Templates to render.
+     */
+    private final I18nItem [] templates;
+
+    /**
+     * The parallelism level of the pool.
+     */
+    private int parallelism = Runtime.getRuntime ().availableProcessors ();
+
+    /**
+     * The constructor.
+     * 
+     * @param templates templates to render for every recipient
+     */
+    public I18nBulkRenderer (I18nItem... templates)
+      {
+        this.templates = templates.clone ();
+      } // I18nBulkRenderer
+
+    /**
+     * Set the number of threads to render with, by default the number of
+     * available processors.
+     * 
+     * @param parallelism the number of threads
+     * @return this instance
+     * @throws IllegalArgumentException should the number be not positive
+     */
+    public I18nBulkRenderer setParallelism (int parallelism)
+        throws IllegalArgumentException
+      {
+        if (parallelism <= 0)
+          {
+            throw new IllegalArgumentException ();
+          }
+        this.parallelism = parallelism;
+        return this;
+      } // setParallelism
+
+    /**
+     * A chunk of recipients ordered by groups, with indexes of best locales
+     * of templates for every recipient.
+     */
+    private static final class Chunk<TKey>
+      {
+        /**
+         * Recipients, ordered by groups.
+         */
+        final Recipient<TKey> [] recipients;
+
+        /**
+         * Indexes of best locales of templates, recipient by recipient and
+         * shared within groups.
+         */
+        final int [][] indexes;
+
+        @SuppressWarnings ({"unchecked", "rawtypes"})
+        Chunk (int size)
+          {
+            this.recipients = new Recipient [size];
+            this.indexes = new int [size] [];
+          } // Chunk
+      } // class Chunk
+
+    /**
+     * A task rendering a range of a chunk, splitting it as necessary.
+     */
+    private final class RenderTask<TKey>
+        extends RecursiveAction
+      {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The chunk to render.
+         */
+        private final Chunk<TKey> chunk;
+
+        /**
+         * Stores of templates.
+         */
+        private final MessageStore [] stores;
+
+        /**
+         * The consumer of rendered messages.
+         */
+        private final Sink<TKey> sink;
+
+        /**
+         * The range of recipients to render.
+         */
+        private final int from, to;
+
+        RenderTask (Chunk<TKey> chunk, MessageStore [] stores,
+                    Sink<TKey> sink, int from, int to)
+          {
+            this.chunk = chunk;
+            this.stores = stores;
+            this.sink = sink;
+            this.from = from;
+            this.to = to;
+          } // RenderTask
+
+        @Override
+        protected void compute ()
+          {
+            if (this.to - this.from > BATCH_SIZE)
+              {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll (new RenderTask<TKey> (this.chunk, this.stores,
+                                                 this.sink, this.from, middle),
+                           new RenderTask<TKey> (this.chunk, this.stores,
+                                                 this.sink, middle, this.to));
+                return;
+              }
+            for (int i = this.from; i < this.to; i++)
+              {
+                Recipient<TKey> recipient = this.chunk.recipients [i];
+                this.sink.accept (recipient.key,
+                                  render (this.stores, this.chunk.indexes [i],
+                                          recipient.arguments));
+              }
+          } // compute
+      } // class RenderTask
+
+    /**
+     * Render all templates for one recipient.
+     * 
+     * @param stores stores of templates
+     * @param indexes indexes of best locales in stores
+     * @param arguments message formatting arguments
+     * @return messages rendered, index by index with templates
+     */
+    private String [] render (MessageStore [] stores, int [] indexes,
+                              Object [] arguments)
+      {
+        String [] messages = new String [stores.length];
+        for (int t = 0; t < stores.length; t++)
+          {
+            messages [t] = this.templates [t].isFormatted () ?
+                             stores [t].compiledMessage (indexes [t])
+                                       .format (arguments) :
+                             stores [t].message (indexes [t]);
+          }
+        return messages;
+      } // render
+
+    /**
+     * Render templates for all recipients, streaming results to a sink. The
+     * call returns once all recipients are rendered.
+     * 
+     * @param <TKey> a class identifying recipients
+     * @param recipients recipients to render templates for
+     * @param sink the consumer of rendered messages
+     * @return the number of recipients rendered
+     * @throws IllegalStateException should no handler be in place
+     * @throws IllegalArgumentException should a template be not a valid
+     *                                  pattern for some locale
+     * @throws InterruptedException should the calling thread be interrupted
+     */
+    public <TKey> long render (Iterator<Recipient<TKey>> recipients,
+                               Sink<TKey> sink)
+        throws IllegalStateException, IllegalArgumentException,
+               InterruptedException
+      {
+        I18nHandler handler = I18nHandler.getHandler ();
+        if (handler == null)
+          {
+            throw new IllegalStateException ("No I18nHandler is in place.");
+          }
+        // stores are read once, so that all recipients get the same messages
+        MessageStore [] stores = new MessageStore [this.templates.length];
+        for (int t = 0; t < stores.length; t++)
+          {
+            stores [t] = this.templates [t].store;
+          }
+        Map<List<String>, LocalePreferences> preferences =
+            new HashMap<List<String>, LocalePreferences> ();
+        long count = 0;
+        ForkJoinPool pool = new ForkJoinPool (this.parallelism);
+        try
+          {
+            ForkJoinTask<Void> task = null;
+            while (true)
+              {
+                // read and group the next chunk while the previous one is
+                // being rendered
+                Chunk<TKey> chunk = this.nextChunk
+                    (recipients, handler, stores, preferences);
+                if (task != null)
+                  {
+                    join (task);
+                  }
+                if (chunk == null)
+                  {
+                    break;
+                  }
+                count += chunk.recipients.length;
+                task = pool.submit
+                    (new RenderTask<TKey> (chunk, stores, sink, 0,
+                                           chunk.recipients.length));
+              }
+          }
+        finally
+          {
+            pool.shutdownNow ();
+          }
+        return count;
+      } // render
+
+    /**
+     * Wait for a task to complete, rethrowing its failure if any.
+     * 
+     * @param task the task
+     * @throws InterruptedException should the calling thread be interrupted
+     */
+    private static void join (ForkJoinTask<Void> task)
+        throws InterruptedException
+      {
+        try
+          {
+            task.get ();
+          }
+        catch (ExecutionException e)
+          {
+            if (e.getCause () instanceof RuntimeException)
+              {
+                throw (RuntimeException) e.getCause ();
+              }
+            throw new IllegalStateException ("I18n bulk rendering failed",
+                                             e.getCause ());
+          }
+      } // join
+
+    /**
+     * Read the next chunk of recipients and group them by preferences.
+     * 
+     * @param recipients recipients to read from
+     * @param handler the handler to negotiate preferences with
+     * @param stores stores of templates
+     * @param preferences preferences negotiated so far, indexed by lists of
+     *                    preferred locales
+     * @return the chunk, or {@code null} if there are no more recipients
+     */
+    private <TKey> Chunk<TKey> nextChunk
+        (Iterator<Recipient<TKey>> recipients, I18nHandler handler,
+         MessageStore [] stores,
+         Map<List<String>, LocalePreferences> preferences)
+      {
+        IdentityHashMap<LocalePreferences, List<Recipient<TKey>>> groups =
+            new IdentityHashMap<LocalePreferences, List<Recipient<TKey>>> ();
+        int size = 0;
+        while (size < CHUNK_SIZE && recipients.hasNext ())
+          {
+            Recipient<TKey> recipient = recipients.next ();
+            List<String> key = Arrays.asList (recipient.localeTags);
+            LocalePreferences recipientPreferences = preferences.get (key);
+            if (recipientPreferences == null)
+              {
+                if (preferences.size () >= MAX_CACHED_PREFERENCES)
+                  {
+                    preferences.clear ();
+                  }
+                recipientPreferences =
+                    handler.newLocalePreferences (recipient.localeTags);
+                preferences.put (key, recipientPreferences);
+              }
+            List<Recipient<TKey>> group = groups.get (recipientPreferences);
+            if (group == null)
+              {
+                group = new ArrayList<Recipient<TKey>> ();
+                groups.put (recipientPreferences, group);
+              }
+            group.add (recipient);
+            size++;
+          }
+        if (size == 0)
+          {
+            return null;
+          }
+        Chunk<TKey> chunk = new Chunk<TKey> (size);
+        int i = 0;
+        for (Map.Entry<LocalePreferences, List<Recipient<TKey>>> entry :
+               groups.entrySet ())
+          {
+            int [] indexes = new int [stores.length];
+            for (int t = 0; t < stores.length; t++)
+              {
+                indexes [t] = handler.resolveLocaleIndex
+                                (this.templates [t], stores [t],
+                                 entry.getKey ());
+              }
+            for (Recipient<TKey> recipient : entry.getValue ())
+              {
+                chunk.recipients [i] = recipient;
+                chunk.indexes [i] = indexes;
+                i++;
+              }
+          }
+        return chunk;
+      } // nextChunk
+
+  } // class I18nBulkRenderer
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+/**
+ * <p>A runtime counterpart of a catalog validated at compile time for a class
+ * declaring static {@link I18nItem} fields, as produced by the
+ * {@code usn.i18n.nobundle.processor.I18nCatalogProcessor} annotation
+ * processor from the {@code usn-i18n-nobundle-processor} module.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>The processor validates messages at compile time, which is where its
+ * value lies; nothing is applied to items at runtime. For a holder class like
+ * {@code com.example.Messages} it also generates a class named
+ * {@code com.example.Messages_I18nIndex} listing the items validated, which
+ * exposes the following public static arrays, with items addressed by their
+ * index in {@code FIELDS}; they are copied upon reading, so that nothing done
+ * to them afterwards affects an index already read:</p>
+ * <ul>
+ *   <li>{@code String [] FIELDS} - names of item fields;</li>
+ *   <li>{@code int [] ARGUMENT_COUNTS} - formatting argument counts of items,
+ *       {@code -1} standing for an arbitrary count.</li>
+ * </ul>
+ * 
+ * <p>An index may be read via {@link #forHolder(Class)}, e.g. by tests or
+ * tooling checking that all items of a class have been validated:</p>
+ * <pre>
+ * I18nCatalogIndex index = I18nCatalogIndex.forHolder (Messages.class);
+ * int count = index.getArgumentCount ("GREETING");
+ * </pre>
+ */
+public final class I18nCatalogIndex
+  {
+    /**
+     * The suffix appended to a holder class name to obtain the name of the
+     * generated index class.
+     */
+    public static final String INDEX_CLASS_SUFFIX = "_I18nIndex";
+
+    /**
+     * The class declaring indexed item fields.
+     */
+    private final Class<?> holder;
+
+    /**
+     * Names of item fields.
+     */
+    private final String [] fields;
+
+    /**
+     * Formatting argument counts of items, {@code -1} standing for an
+     * arbitrary count.
+     */
+    private final int [] argumentCounts;
+
+    /**
+     * The constructor, reading the arrays of a generated index class.
+     * 
+     * @param holder the class declaring indexed item fields
+     * @param index the generated index class
+     * @throws ReflectiveOperationException should the index class be malformed
+     */
+    private I18nCatalogIndex (Class<?> holder, Class<?> index)
+        throws ReflectiveOperationException
+      {
+        this.holder = holder;
+        // copy the arrays, as those of the index class may be modified by
+        // anyone
+        this.fields =
+            ((String []) index.getField ("FIELDS").get (null)).clone ();
+        this.argumentCounts =
+            ((int []) index.getField ("ARGUMENT_COUNTS").get (null)).clone ();
+      } // I18nCatalogIndex
+
+    /**
+     * Get the index generated for a holder class.
+     * 
+     * @param holder the class declaring static {@link I18nItem} fields
+     * @return the index, or {@code null} if none was generated
+     * @throws IllegalStateException should the generated index be malformed
+     */
+    public static I18nCatalogIndex forHolder (Class<?> holder)
+        throws IllegalStateException
+      {
+        Class<?> index;
+        try
+          {
+            index = Class.forName (holder.getName () + INDEX_CLASS_SUFFIX,
+                                   true, holder.getClassLoader ());
+          }
+        catch (ClassNotFoundException e)
+          {
+            return null;
+          }
+        try
+          {
+            return new I18nCatalogIndex (holder, index);
+          }
+        catch (ReflectiveOperationException | ClassCastException e)
+          {
+            throw new IllegalStateException
+                ("Malformed i18n index class " + index.getName (), e);
+          }
+      } // forHolder
+
+    /**
+     * Get the class declaring indexed item fields.
+     * 
+     * @return the holder class
+     */
+    public Class<?> getHolder ()
+      {
+        return this.holder;
+      } // getHolder
+
+    /**
+     * Get names of indexed item fields.
+     * 
+     * @return a copy of field names
+     */
+    public String [] getFieldNames ()
+      {
+        return this.fields.clone ();
+      } // getFieldNames
+
+    /**
+     * Get the formatting argument count of an indexed item, as validated at
+     * compile time.
+     * 
+     * @param fieldName the name of the item field
+     * @return the argument count, {@code -1} standing for an arbitrary count
+     * @throws IllegalArgumentException should the field not be indexed
+     */
+    public int getArgumentCount (String fieldName)
+        throws IllegalArgumentException
+      {
+        return this.argumentCounts [this.indexOf (fieldName)];
+      } // getArgumentCount
+
+    /**
+     * Find the index of an item field.
+     * 
+     * @param fieldName the name of the item field
+     * @return the index in {@link #fields}
+     * @throws IllegalArgumentException should the field not be indexed
+     */
+    private int indexOf (String fieldName)
+        throws IllegalArgumentException
+      {
+        for (int i = 0; i < this.fields.length; i++)
+          {
+            if (this.fields [i].equals (fieldName))
+              {
+                return i;
+              }
+          }
+        throw new IllegalArgumentException
+            ("Field " + fieldName + " is not indexed for " +
+             this.holder.getName ());
+      } // indexOf
+
+  } // class I18nCatalogIndex
@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>An optional loader of external translations to be laid over messages of
+ * existing {@link I18nItem} instances at runtime, allowing fixing messages or
+ * adding new locales without rebuilding an application.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Translations are taken from a compact binary catalog file that is mapped
+ * into memory, with messages being kept in the mapped region and decoded on
+ * access only. Catalog files may be produced with
+ * {@link #write(Path,Map)} or by running this class from the command line to
+ * convert a {@link Properties} file, with keys like
+ * {@code com.example.Messages.GREETING@fr-CA}, see {@link #main(String[])}.</p>
+ * 
+ * <p>Items are identified by stable keys, normally composed of a fully
+ * qualified name of the class declaring a static item field and the name of
+ * the field, like {@code com.example.Messages.GREETING}. Items are to be bound
+ * to an overlay either one by one via {@link #bind(String,I18nItem)} or in
+ * bulk via {@link #bind(Class[])}. A message found in the catalog replaces the
+ * compiled-in message for its locale, and a locale not known to an item is
+ * added to it; compiled-in messages for other locales stay as they are.</p>
+ * 
+ * <p>The catalog is applied via {@link #load()}, and may be watched for
+ * changes via {@link #watch()}. Every item is switched from the previous
+ * catalog to the new one atomically, so that an ongoing lookup never sees a
+ * partially loaded catalog. A catalog that fails to load leaves the previous
+ * one in place.</p>
+ * 
+ * <p>NOTE A catalog file that is in use must not be modified in place; a new
+ * version is to be written to a temporary file and then moved over the old
+ * one, like {@link #write(Path,Map)} does it.</p>
+ * 
+ * <p>A simple usage example:</p>
+ * <pre>
+ * I18nCatalogOverlay overlay =
+ *     new I18nCatalogOverlay (Paths.get ("/etc/myapp/messages.i18n"));
+ * overlay.bind (Messages.class, Errors.class);
+ * overlay.load ();
+ * overlay.watch ();
+ * </pre>
+ */
+public final class I18nCatalogOverlay
+    implements Closeable
+  {
+    /**
+     * The logger for reporting background reload failures.
+     */
+    private static final Logger logger =
+        LoggerFactory.getLogger (I18nCatalogOverlay.class);
+
+    /**
+     * The catalog file.
+     */
+    private final Path file;
+
+    /**
+     * Items bound to this overlay, indexed by their keys.
+     */
+    private final Map<String, I18nItem> items =
+        new LinkedHashMap<String, I18nItem> ();
+
+    /**
+     * The catalog currently applied, or {@code null} if none.
+     */
+    private CatalogFile catalog = null;
+
+    /**
+     * The service watching the catalog file, or {@code null} if not watching.
+     */
+    private WatchService watchService = null;
+
+    /**
+     * The constructor.
+     * 
+     * @param file the catalog file
+     */
+    public I18nCatalogOverlay (Path file)
+      {
+        this.file = file.toAbsolutePath ();
+      } // I18nCatalogOverlay
+
+    /**
+     * Bind an item to this overlay, applying the current catalog to it, if
+     * any.
+     * 
+     * @param key the stable key of the item
+     * @param item the item
+     */
+    public synchronized void bind (String key, I18nItem item)
+      {
+        this.items.put (key, item);
+        if (this.catalog != null)
+          {
+            item.replaceStore (this.overlaidStore (key, item, this.catalog));
+          }
+      } // bind
+
+    /**
+     * Bind all items held by static fields of given classes to this overlay,
+     * with keys composed of class names and field names.
+     * 
+     * @param holders classes declaring static {@link I18nItem} fields
+     */
+    public synchronized void bind (Class<?>... holders)
+      {
+        for (Class<?> holder : holders)
+          {
+            for (Map.Entry<String, I18nItem> entry :
+                   I18nItemRegistry.collectItems (holder).entrySet ())
+              {
+                this.bind (entry.getKey (), entry.getValue ());
+              }
+          }
+      } // bind
+
+    /**
+     * Get the store an item is to have with a catalog applied.
+     * 
+     * @param key the key of the item
+     * @param item the item
+     * @param catalog the catalog, or {@code null} for no catalog
+     * @return the store for the item
+     */
+    private MessageStore overlaidStore (String key, I18nItem item,
+                                        CatalogFile catalog)
+      {
+        MessageStore base = item.store;
+        if (base instanceof BufferMessageStore &&
+            ((BufferMessageStore) base).owner == this)
+          {
+            base = ((BufferMessageStore) base).base;
+          }
+        CatalogFile.Entry entry =
+            (catalog != null) ? catalog.entries.get (key) : null;
+        return (entry != null) ?
+                 new BufferMessageStore (base, catalog, entry, this, true) :
+                 base;
+      } // overlaidStore
+
+    /**
+     * Switch all bound items to a catalog atomically item by item, with all
+     * new stores being prepared in advance.
+     * 
+     * @param catalog the catalog, or {@code null} for no catalog
+     */
+    private void apply (CatalogFile catalog)
+      {
+        List<I18nItem> items = new ArrayList<I18nItem> (this.items.size ());
+        List<MessageStore> stores =
+            new ArrayList<MessageStore> (this.items.size ());
+        for (Map.Entry<String, I18nItem> entry : this.items.entrySet ())
+          {
+            items.add (entry.getValue ());
+            stores.add (this.overlaidStore (entry.getKey (), entry.getValue (),
+                                            catalog));
+          }
+        for (int i = 0; i < items.size (); i++)
+          {
+            items.get (i).replaceStore (stores.get (i));
+          }
+        this.catalog = catalog;
+      } // apply
+
+    /**
+     * Load the catalog file and apply it to all bound items, replacing the
+     * catalog applied before, if any.
+     * 
+     * @throws IOException should the file be unreadable or not hold a valid
+     *                     catalog, with the previous catalog left in place
+     */
+    public synchronized void load ()
+        throws IOException
+      {
+        this.apply (CatalogFile.map (this.file));
+      } // load
+
+    /**
+     * Remove the catalog from all bound items, reverting them to their
+     * compiled-in messages.
+     */
+    public synchronized void unload ()
+      {
+        this.apply (null);
+      } // unload
+
+    /**
+     * Start watching the catalog file for changes in a background daemon
+     * thread, loading it anew whenever it is created, replaced or modified.
+     * Failures are logged, with the previous catalog left in place.
+     * 
+     * @throws IOException should watching be impossible
+     */
+    public synchronized void watch ()
+        throws IOException
+      {
+        if (this.watchService != null)
+          {
+            return;
+          }
+        final WatchService watchService =
+            this.file.getFileSystem ().newWatchService ();
+        this.file.getParent ().register
+            (watchService,
+             StandardWatchEventKinds.ENTRY_CREATE,
+             StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchService = watchService;
+        Thread watcher = new Thread
+          (new Runnable ()
+             {
+               @Override
+               public void run ()
+                 {
+                   watchLoop (watchService);
+                 } // run
+             },
+           "I18nCatalogOverlay " + this.file);
+        watcher.setDaemon (true);
+        watcher.start ();
+      } // watch
+
+    /**
+     * The loop of the watching thread.
+     * 
+     * @param watchService the service to take events from
+     */
+    private void watchLoop (WatchService watchService)
+      {
+        Path fileName = this.file.getFileName ();
+        try
+          {
+            while (true)
+              {
+                WatchKey key = watchService.take ();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents ())
+                  {
+                    if (event.kind () == StandardWatchEventKinds.OVERFLOW ||
+                        fileName.equals (event.context ()))
+                      {
+                        changed = true;
+                      }
+                  }
+                if (changed)
+                  {
+                    try
+                      {
+                        this.load ();
+                      }
+                    catch (IOException e)
+                      {
+                        logger.warn ("Failed to load i18n catalog " +
+                                     this.file, e);
+                      }
+                    catch (RuntimeException e)
+                      {
+                        // keep watching, a later version of the file may be
+                        // fine
+                        logger.warn ("Failed to apply i18n catalog " +
+                                     this.file, e);
+                      }
+                  }
+                if (!key.reset ())
+                  {
+                    break;
+                  }
+              }
+          }
+        catch (InterruptedException e)
+          {
+            // just finish
+          }
+        catch (ClosedWatchServiceException e)
+          {
+            // just finish
+          }
+      } // watchLoop
+
+    /**
+     * Stop watching the catalog file, if watching, and remove the catalog from
+     * all bound items.
+     * 
+     * @throws IOException as thrown upon closing the watch service
+     */
+    @Override
+    public synchronized void close ()
+        throws IOException
+      {
+        if (this.watchService != null)
+          {
+            this.watchService.close ();
+            this.watchService = null;
+          }
+        this.unload ();
+      } // close
+
+    /**
+     * Write a catalog file. The catalog is written to a temporary file first,
+     * which is then moved over the target file, so that the target file is
+     * never seen partially written, and catalogs mapped from its previous
+     * version stay intact.
+     * 
+     * @param file the catalog file
+     * @param translations translations of messages to various locales,
+     *                     indexed by stable keys of items
+     * @throws IOException as thrown upon writing
+     */
+    public static void write (Path file,
+                              Map<String, LocalizedMessage []> translations)
+        throws IOException
+      {
+        Path target = file.toAbsolutePath ();
+        Path temporary = Files.createTempFile
+            (target.getParent (), target.getFileName ().toString (), ".tmp");
+        try
+          {
+            try (OutputStream output = Files.newOutputStream (temporary))
+              {
+                CatalogFile.write (output, translations);
+              }
+            Files.move (temporary, target,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+          }
+        finally
+          {
+            Files.deleteIfExists (temporary);
+          }
+      } // write
+
+    /**
+     * Convert a UTF-8 encoded {@link Properties} file into a catalog file.
+     * Property keys are to be composed of item keys and
+     * {@link Locale#toLanguageTag() locale language tags} separated by
+     * {@code '@'}, like {@code com.example.Messages.GREETING@fr-CA}.
+     * 
+     * @param args the source properties file and the target catalog file
+     * @throws IOException as thrown upon reading or writing
+     */
+    public static void main (String [] args)
+        throws IOException
+      {
+        if (args.length != 2)
+          {
+            System.err.println ("Usage: java " +
+                                I18nCatalogOverlay.class.getName () +
+                                " <source.properties> <target catalog>");
+            System.exit (1);
+          }
+        Properties properties = new Properties ();
+        try (InputStream input = Files.newInputStream (Paths.get (args [0])))
+          {
+            properties.load (new InputStreamReader (input, CatalogFile.UTF_8));
+          }
+        LinkedHashMap<String, List<LocalizedMessage>> messages =
+            new LinkedHashMap<String, List<LocalizedMessage>> ();
+        for (String name : properties.stringPropertyNames ())
+          {
+            int separator = name.lastIndexOf ('@');
+            if (separator <= 0 || separator == name.length () - 1)
+              {
+                throw new IOException ("Malformed key: " + name);
+              }
+            String key = name.substring (0, separator);
+            List<LocalizedMessage> itemMessages = messages.get (key);
+            if (itemMessages == null)
+              {
+                itemMessages = new ArrayList<LocalizedMessage> ();
+                messages.put (key, itemMessages);
+              }
+            itemMessages.add (LocalizedMessage.lm
+                                (name.substring (separator + 1),
+                                 properties.getProperty (name)));
+          }
+        LinkedHashMap<String, LocalizedMessage []> translations =
+            new LinkedHashMap<String, LocalizedMessage []> ();
+        for (Map.Entry<String, List<LocalizedMessage>> entry :
+               messages.entrySet ())
+          {
+            translations.put (entry.getKey (),
+                              entry.getValue ().toArray
+                                (new LocalizedMessage [0]));
+          }
+        write (Paths.get (args [1]), translations);
+      } // main
+
+  } // class I18nCatalogOverlay
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A compact binary snapshot of messages of {@link I18nItem} instances, for
+ * items to be declared without compiled-in messages.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>A snapshot holds all messages as UTF-8 bytes in one buffer, with
+ * identical messages stored once, locales referred to by their index in a
+ * shared locale table, and items addressed by stable keys, like
+ * {@code com.example.Messages.GREETING}. Only the tables are parsed upon
+ * reading, and messages are decoded on every access, or written to streams as
+ * they are via {@link I18nItem0#writeTo(java.io.OutputStream)}. Neither
+ * decoded messages nor messages compiled for formatting or escaped for
+ * markup are cached, so that with the snapshot held off-heap, in a mapped
+ * file or a direct buffer, the heap keeps just offsets of messages, and the
+ * time the garbage collector spends scanning it does not grow with the size
+ * of the catalog. Items needing formatting or escaping on hot paths pay for
+ * it on every call.</p>
+ * 
+ * <p>Items are created directly from a snapshot via constructors taking it
+ * along with their key, like
+ * {@link I18nItem0#I18nItem0(I18nCatalogSnapshot,String)}. Such items have no
+ * string literals in their declaring classes and build no maps of messages,
+ * so that class initialization costs a table lookup per item, and messages
+ * take no heap until used.</p>
+ * 
+ * <p>Items declared with compiled-in messages may also be switched to a
+ * snapshot via {@link #bind(Class[])}, e.g. to replace messages without
+ * recompiling. That saves neither startup time nor heap, as their string
+ * literals stay referenced by the declaring classes anyway.</p>
+ * 
+ * <p>Snapshots are produced at build time, either via
+ * {@link #write(Path,Class[])} or by running this class from the command line,
+ * see {@link #main(String[])}, from classes declaring items with compiled-in
+ * messages, or from properties files via {@link I18nCatalogOverlay}, whose
+ * catalog files have the same format.</p>
+ * 
+ * <p>A snapshot may be used in one of the following ways:</p>
+ * <ul>
+ *   <li>mapped from a file via {@link #map(Path)}, sharing messages via the
+ *       page cache between all JVMs on a host, which also suits AppCDS
+ *       deployments with the snapshot file placed next to the shared
+ *       archive;</li>
+ *   <li>loaded from a class path resource into a direct buffer via
+ *       {@link #fromResource(ClassLoader,String)};</li>
+ *   <li>wrapped around a byte array via {@link #of(byte[])}, e.g. one held by
+ *       a static field of a class initialized at build time in GraalVM
+ *       native-image, so that the snapshot ends up in the image heap.</li>
+ * </ul>
+ * 
+ * <p>A simple usage example:</p>
+ * <pre>
+ * static final I18nCatalogSnapshot SNAPSHOT;
+ * static
+ *   {
+ *     try
+ *       {
+ *         SNAPSHOT = I18nCatalogSnapshot.map
+ *             (Paths.get ("/opt/myapp/messages.snapshot"));
+ *       }
+ *     catch (IOException e)
+ *       {
+ *         throw new ExceptionInInitializerError (e);
+ *       }
+ *   }
+ * static final I18nItem0 GREETING =
+ *     new I18nItem0 (SNAPSHOT, "com.example.Messages.GREETING");
+ * </pre>
+ */
+public final class I18nCatalogSnapshot
+  {
+    /**
+     * The catalog holding the snapshot.
+     */
+    private final CatalogFile catalog;
+
+    /**
+     * Language keys of locales of stores, shared by stores having the same
+     * locales, indexed by string forms of arrays of locale indexes.
+     */
+    private final ConcurrentHashMap<String, String []> sharedLanguages =
+        new ConcurrentHashMap<String, String []> ();
+
+    /**
+     * The constructor.
+     * 
+     * @param catalog the catalog holding the snapshot
+     */
+    private I18nCatalogSnapshot (CatalogFile catalog)
+      {
+        this.catalog = catalog;
+      } // I18nCatalogSnapshot
+
+    /**
+     * Read a snapshot from a buffer. The buffer is not copied and is not to be
+     * modified afterwards.
+     * 
+     * @param buffer the buffer holding the whole snapshot
+     * @return the snapshot
+     * @throws IOException should the buffer not hold a valid snapshot
+     */
+    public static I18nCatalogSnapshot of (ByteBuffer buffer)
+        throws IOException
+      {
+        return new I18nCatalogSnapshot (new CatalogFile (buffer));
+      } // of
+
+    /**
+     * Read a snapshot from a byte array. The array is not copied and is not
+     * to be modified afterwards.
+     * 
+     * @param bytes the array holding the whole snapshot
+     * @return the snapshot
+     * @throws IOException should the array not hold a valid snapshot
+     */
+    public static I18nCatalogSnapshot of (byte [] bytes)
+        throws IOException
+      {
+        return of (ByteBuffer.wrap (bytes));
+      } // of
+
+    /**
+     * Map a snapshot file into memory.
+     * 
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws IOException should the file be unreadable or not hold a valid
+     *                     snapshot
+     */
+    public static I18nCatalogSnapshot map (Path file)
+        throws IOException
+      {
+        return new I18nCatalogSnapshot (CatalogFile.map (file));
+      } // map
+
+    /**
+     * Read a snapshot from a class path resource into a direct buffer, off
+     * the heap.
+     * 
+     * @param classLoader the class loader to look for the resource with
+     * @param name the name of the resource
+     * @return the snapshot
+     * @throws IOException should the resource be missing or unreadable or not
+     *                     hold a valid snapshot
+     */
+    public static I18nCatalogSnapshot fromResource (ClassLoader classLoader,
+                                                    String name)
+        throws IOException
+      {
+        try (InputStream input = classLoader.getResourceAsStream (name))
+          {
+            if (input == null)
+              {
+                throw new FileNotFoundException ("No i18n snapshot resource " +
+                                                 name);
+              }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+            byte [] chunk = new byte [8192];
+            int count;
+            while ((count = input.read (chunk)) >= 0)
+              {
+                bytes.write (chunk, 0, count);
+              }
+            ByteBuffer buffer = ByteBuffer.allocateDirect (bytes.size ());
+            buffer.put (bytes.toByteArray ());
+            buffer.flip ();
+            return of (buffer);
+          }
+      } // fromResource
+
+    /**
+     * Back items held by static fields of given classes by this snapshot.
+     * Items not found in the snapshot keep their messages.
+     * 
+     * @param holders classes declaring static {@link I18nItem} fields
+     * @return the number of items backed by the snapshot
+     */
+    public int bind (Class<?>... holders)
+      {
+        int count = 0;
+        for (Class<?> holder : holders)
+          {
+            for (Map.Entry<String, I18nItem> item :
+                   I18nItemRegistry.collectItems (holder).entrySet ())
+              {
+                CatalogFile.Entry entry =
+                    this.catalog.entries.get (item.getKey ());
+                if (entry != null)
+                  {
+                    item.getValue ().replaceStore (this.newStore (entry));
+                    count++;
+                  }
+              }
+          }
+        return count;
+      } // bind
+
+    /**
+     * Get a store for an item declared without compiled-in messages.
+     * 
+     * @param key the stable key of the item
+     * @return a new store backed by this snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    MessageStore storeFor (String key)
+        throws IllegalArgumentException
+      {
+        CatalogFile.Entry entry = this.catalog.entries.get (key);
+        if (entry == null || entry.offsets.length == 0)
+          {
+            throw new IllegalArgumentException
+                ("No messages for i18n item " + key + " in the snapshot");
+          }
+        return this.newStore (entry);
+      } // storeFor
+
+    /**
+     * Create a store for a catalog entry, presetting language keys of its
+     * locales from the locale table.
+     * 
+     * @param entry the entry
+     * @return a new store
+     */
+    private BufferMessageStore newStore (CatalogFile.Entry entry)
+      {
+        BufferMessageStore store =
+            new BufferMessageStore (null, this.catalog, entry, this,
+                                    false);
+        if (store.localeTags.length == entry.localeIndexes.length)
+          {
+            String key = Arrays.toString (entry.localeIndexes);
+            String [] languages = this.sharedLanguages.get (key);
+            if (languages == null)
+              {
+                String [] catalogLanguages = this.catalog.getLanguages ();
+                languages = new String [store.localeTags.length];
+                for (int i = 0; i < languages.length; i++)
+                  {
+                    languages [i] = catalogLanguages [entry.localeIndexes [i]];
+                  }
+                this.sharedLanguages.putIfAbsent (key, languages);
+              }
+            store.presetLanguages (languages);
+          }
+        return store;
+      } // newStore
+
+    /**
+     * Collect current messages of items held by static fields of given
+     * classes.
+     * 
+     * @param holders classes declaring static {@link I18nItem} fields
+     * @return translations of messages, indexed by item keys
+     */
+    static Map<String, LocalizedMessage []> collectMessages
+        (Class<?>... holders)
+      {
+        LinkedHashMap<String, LocalizedMessage []> translations =
+            new LinkedHashMap<String, LocalizedMessage []> ();
+        for (Class<?> holder : holders)
+          {
+            for (Map.Entry<String, I18nItem> item :
+                   I18nItemRegistry.collectItems (holder).entrySet ())
+              {
+                MessageStore store = item.getValue ().store;
+                LocalizedMessage [] messages =
+                    new LocalizedMessage [store.localeTags.length];
+                for (int i = 0; i < messages.length; i++)
+                  {
+                    messages [i] = new LocalizedMessage (store.localeTags [i],
+                                                         store.message (i));
+                  }
+                translations.put (item.getKey (), messages);
+              }
+          }
+        return translations;
+      } // collectMessages
+
+    /**
+     * Make a snapshot of current messages of items held by static fields of
+     * given classes.
+     * 
+     * @param holders classes declaring static {@link I18nItem} fields
+     * @return the snapshot as a byte array
+     */
+    public static byte [] toByteArray (Class<?>... holders)
+      {
+        ByteArrayOutputStream output = new ByteArrayOutputStream ();
+        try
+          {
+            CatalogFile.write (output, collectMessages (holders));
+          }
+        catch (IOException e)
+          {
+            // not expected from a byte array stream...
+            throw new IllegalStateException (e);
+          }
+        return output.toByteArray ();
+      } // toByteArray
+
+    /**
+     * Write a snapshot file of current messages of items held by static
+     * fields of given classes, replacing the file atomically.
+     * 
+     * @param file the snapshot file
+     * @param holders classes declaring static {@link I18nItem} fields
+     * @throws IOException as thrown upon writing
+     */
+    public static void write (Path file, Class<?>... holders)
+        throws IOException
+      {
+        I18nCatalogOverlay.write (file, collectMessages (holders));
+      } // write
+
+    /**
+     * Write a snapshot file for given classes, to be run at build time with
+     * the application on the class path.
+     * 
+     * @param args the target snapshot file followed by fully qualified names
+     *             of classes declaring static {@link I18nItem} fields
+     * @throws IOException as thrown upon writing
+     * @throws ClassNotFoundException should a class be missing
+     */
+    public static void main (String [] args)
+        throws IOException, ClassNotFoundException
+      {
+        if (args.length < 2)
+          {
+            System.err.println ("Usage: java " +
+                                I18nCatalogSnapshot.class.getName () +
+                                " <target snapshot> <class name>...");
+            System.exit (1);
+          }
+        Class<?> [] holders = new Class<?> [args.length - 1];
+        for (int i = 0; i < holders.length; i++)
+          {
+            holders [i] = Class.forName (args [i + 1]);
+          }
+        write (Paths.get (args [0]), holders);
+      } // main
+
+  } // class I18nCatalogSnapshot
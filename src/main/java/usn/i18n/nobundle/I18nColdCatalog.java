@@ -0,0 +1,734 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.lang.ref.SoftReference;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * <p>A compact cold store of messages of {@link I18nItem} instances, keeping
+ * messages of every locale compressed until the locale is first requested, to
+ * save memory on nodes serving a few locales out of many.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Messages of all items for one locale are kept together as one deflated
+ * block. A block is inflated into a table of messages upon the first request
+ * for a message of its locale, and the table is held via a
+ * {@link SoftReference}, so that tables of locales not used for a while may be
+ * evicted under memory pressure, to be materialized anew on the next request.
+ * The JVM clears soft references of least recently used tables first, which
+ * makes eviction follow an LRU policy without any bookkeeping on the lookup
+ * path. Tables may also be evicted explicitly via {@link #evict()}. Messages
+ * compiled for formatting and escaped for markup are kept along with their
+ * table and evicted together with it, and items switched to a cold catalog
+ * are not compiled ahead of use by {@link I18nPatternCompiler}, so that no
+ * data of locales not in use is kept alive.</p>
+ * 
+ * <p>Blocks read from a file are validated upon reading, by inflating them
+ * once without keeping their messages.</p>
+ * 
+ * <p>Items are addressed by stable keys composed of class names and field
+ * names, like {@code com.example.Messages.GREETING}. A cold catalog may be
+ * made of current messages of items via {@link #of(Class[])}, or kept in an
+ * external file produced at build time via {@link #write(Path)} and read via
+ * {@link #read(Path)}. Items are switched to the cold catalog via
+ * {@link #bind(Class[])}.</p>
+ * 
+ * <p>NOTE Messages given as string literals in code stay referenced by their
+ * declaring classes anyway, so memory is only saved for messages that come
+ * from elsewhere, like an {@link I18nCatalogSnapshot} or a cold catalog file
+ * with items declaring just their primary locale in code.</p>
+ * 
+ * <p>A simple usage example:</p>
+ * <pre>
+ * I18nColdCatalog.read (Paths.get ("/opt/myapp/messages.cold"))
+ *     .bind (Messages.class, Errors.class);
+ * </pre>
+ */
+public final class I18nColdCatalog
+  {
+    /**
+     * The magic number of cold catalog files, "I18C" in ASCII.
+     */
+    static final int MAGIC = 0x49313843;
+
+    /**
+     * The format version of cold catalog files.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * A materialized locale table: messages along with data derived from them,
+     * like compiled messages and messages escaped for markup, all of them
+     * being dropped together when the table is evicted.
+     */
+    static final class Contents
+      {
+        /**
+         * Messages, indexed by their positions in the table.
+         */
+        final String [] messages;
+
+        /**
+         * Messages compiled for formatting, slot by slot. Created lazily.
+         */
+        private volatile CompiledMessage [] compiledMessages = null;
+
+        /**
+         * Messages escaped for markup, indexed by {@link Escaping#ordinal()}
+         * and then slot by slot. Created lazily.
+         */
+        private volatile String [][] escapedMessages = null;
+
+        /**
+         * The constructor.
+         * 
+         * @param messages messages of the table
+         */
+        Contents (String [] messages)
+          {
+            this.messages = messages;
+          } // Contents
+
+        /**
+         * Get a message compiled for formatting, compiling and caching it on
+         * first use.
+         * 
+         * @param slot the position of the message in the table
+         * @param localeTag the locale language tag of the table
+         * @return the compiled message
+         * @throws IllegalArgumentException should the message be not a valid
+         *                                  pattern
+         */
+        CompiledMessage compiledMessage (int slot, String localeTag)
+            throws IllegalArgumentException
+          {
+            CompiledMessage [] compiledMessages = this.compiledMessages;
+            if (compiledMessages == null)
+              {
+                compiledMessages = new CompiledMessage [this.messages.length];
+                this.compiledMessages = compiledMessages;
+              }
+            // a race here may only cause a message being compiled twice
+            CompiledMessage compiledMessage = compiledMessages [slot];
+            if (compiledMessage == null)
+              {
+                compiledMessage =
+                    new CompiledMessage (this.messages [slot],
+                                         I18nHandler.localeForLanguageTag
+                                           (localeTag));
+                compiledMessages [slot] = compiledMessage;
+              }
+            return compiledMessage;
+          } // compiledMessage
+
+        /**
+         * Get a message escaped for markup, escaping and caching it on first
+         * use.
+         * 
+         * @param slot the position of the message in the table
+         * @param escaping the markup context to escape for
+         * @return the message, escaped
+         */
+        String escapedMessage (int slot, Escaping escaping)
+          {
+            String [][] escapedMessages = this.escapedMessages;
+            if (escapedMessages == null)
+              {
+                escapedMessages = new String [Escaping.values ().length] [];
+                this.escapedMessages = escapedMessages;
+              }
+            String [] messages = escapedMessages [escaping.ordinal ()];
+            if (messages == null)
+              {
+                messages = new String [this.messages.length];
+                escapedMessages [escaping.ordinal ()] = messages;
+              }
+            // a race here may only cause a message being escaped twice
+            String message = messages [slot];
+            if (message == null)
+              {
+                message = escaping.escape (this.messages [slot]);
+                messages [slot] = message;
+              }
+            return message;
+          } // escapedMessage
+      } // class Contents
+
+    /**
+     * Messages of all items for one locale, compressed until first requested.
+     */
+    static final class LocaleTable
+      {
+        /**
+         * The {@link java.util.Locale#toLanguageTag() locale language tag}.
+         */
+        final String localeTag;
+
+        /**
+         * The {@link I18nLocaleFallback#languageKey(String) language key} of
+         * the locale.
+         */
+        final String language;
+
+        /**
+         * The number of messages in the table.
+         */
+        final int count;
+
+        /**
+         * The deflated block of messages, each being preceded by its UTF-8
+         * length.
+         */
+        final byte [] compressed;
+
+        /**
+         * The materialized table, or {@code null} if never materialized.
+         */
+        private volatile SoftReference<Contents> contents = null;
+
+        /**
+         * The constructor.
+         * 
+         * @param localeTag the locale language tag
+         * @param count the number of messages in the table
+         * @param compressed the deflated block of messages
+         */
+        LocaleTable (String localeTag, int count, byte [] compressed)
+          {
+            this.localeTag = localeTag;
+            this.language = I18nLocaleFallback.languageKey (localeTag);
+            this.count = count;
+            this.compressed = compressed;
+          } // LocaleTable
+
+        /**
+         * Get the materialized table, if currently available.
+         * 
+         * @return the table, or {@code null} if not materialized or evicted
+         */
+        Contents peek ()
+          {
+            SoftReference<Contents> contents = this.contents;
+            return (contents != null) ? contents.get () : null;
+          } // peek
+
+        /**
+         * Get the materialized table, inflating it if necessary.
+         * 
+         * @return the table
+         */
+        Contents materialize ()
+          {
+            Contents contents = this.peek ();
+            if (contents == null)
+              {
+                synchronized (this)
+                  {
+                    contents = this.peek ();
+                    if (contents == null)
+                      {
+                        contents = new Contents (this.inflate ());
+                        this.contents = new SoftReference<Contents> (contents);
+                      }
+                  }
+              }
+            return contents;
+          } // materialize
+
+        /**
+         * Drop the materialized table, if any.
+         */
+        void evict ()
+          {
+            this.contents = null;
+          } // evict
+
+        /**
+         * Inflate the block of messages.
+         * 
+         * @return the table of messages
+         */
+        private String [] inflate ()
+          {
+            String [] messages = new String [this.count];
+            try (DataInputStream input = new DataInputStream
+                     (new InflaterInputStream
+                        (new ByteArrayInputStream (this.compressed))))
+              {
+                for (int i = 0; i < messages.length; i++)
+                  {
+                    byte [] bytes = new byte [input.readInt ()];
+                    input.readFully (bytes);
+                    messages [i] = I18nMessagePool.pooled
+                                    (new String (bytes, CatalogFile.UTF_8));
+                  }
+              }
+            catch (IOException e)
+              {
+                // blocks are validated upon reading a catalog...
+                throw new IllegalStateException
+                    ("Corrupt i18n cold catalog block for " + this.localeTag,
+                     e);
+              }
+            return messages;
+          } // inflate
+
+        /**
+         * Check that the block of messages inflates into exactly
+         * {@link #count} well-formed messages, without keeping them.
+         * 
+         * @throws IOException should the block be corrupt
+         */
+        void validate ()
+            throws IOException
+          {
+            byte [] buffer = new byte [8192];
+            try (DataInputStream input = new DataInputStream
+                     (new InflaterInputStream
+                        (new ByteArrayInputStream (this.compressed))))
+              {
+                for (int i = 0; i < this.count; i++)
+                  {
+                    int length = input.readInt ();
+                    if (length < 0)
+                      {
+                        throw new IOException ("Corrupt i18n cold catalog");
+                      }
+                    while (length > 0)
+                      {
+                        int chunk = Math.min (length, buffer.length);
+                        input.readFully (buffer, 0, chunk);
+                        length -= chunk;
+                      }
+                  }
+                if (input.read () >= 0)
+                  {
+                    throw new IOException ("Corrupt i18n cold catalog");
+                  }
+              }
+          } // validate
+      } // class LocaleTable
+
+    /**
+     * Messages of one item, as positions in locale tables.
+     */
+    private static final class Entry
+      {
+        /**
+         * Indexes of locale tables, message by message.
+         */
+        final int [] localeIndexes;
+
+        /**
+         * Positions of messages in their tables, message by message.
+         */
+        final int [] slots;
+
+        Entry (int count)
+          {
+            this.localeIndexes = new int [count];
+            this.slots = new int [count];
+          } // Entry
+      } // class Entry
+
+    /**
+     * Locale tables.
+     */
+    private final LocaleTable [] tables;
+
+    /**
+     * Item entries, indexed by item keys.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * The constructor.
+     * 
+     * @param tables locale tables
+     * @param entries item entries, indexed by item keys
+     */
+    private I18nColdCatalog (LocaleTable [] tables, Map<String, Entry> entries)
+      {
+        this.tables = tables;
+        this.entries = entries;
+      } // I18nColdCatalog
+
+    /**
+     * Make a cold catalog of current messages of items held by static fields
+     * of given classes. Items are not switched to it until
+     * {@link #bind(Class[])} is called.
+     * 
+     * @param holders classes declaring static {@link I18nItem} fields
+     * @return the cold catalog
+     */
+    public static I18nColdCatalog of (Class<?>... holders)
+      {
+        Map<String, LocalizedMessage []> translations =
+            I18nCatalogSnapshot.collectMessages (holders);
+        LinkedHashMap<String, Integer> localeIndexes =
+            new LinkedHashMap<String, Integer> ();
+        List<List<String>> localeMessages = new ArrayList<List<String>> ();
+        List<Map<String, Integer>> localeSlots =
+            new ArrayList<Map<String, Integer>> ();
+        LinkedHashMap<String, Entry> entries =
+            new LinkedHashMap<String, Entry> ();
+        for (Map.Entry<String, LocalizedMessage []> item :
+               translations.entrySet ())
+          {
+            Entry entry = new Entry (item.getValue ().length);
+            for (int i = 0; i < entry.slots.length; i++)
+              {
+                LocalizedMessage lm = item.getValue () [i];
+                Integer localeIndex = localeIndexes.get (lm.localeTag);
+                if (localeIndex == null)
+                  {
+                    localeIndex = localeIndexes.size ();
+                    localeIndexes.put (lm.localeTag, localeIndex);
+                    localeMessages.add (new ArrayList<String> ());
+                    localeSlots.add (new HashMap<String, Integer> ());
+                  }
+                // identical messages of one locale share their slot
+                Integer slot = localeSlots.get (localeIndex).get (lm.message);
+                if (slot == null)
+                  {
+                    slot = localeMessages.get (localeIndex).size ();
+                    localeMessages.get (localeIndex).add (lm.message);
+                    localeSlots.get (localeIndex).put (lm.message, slot);
+                  }
+                entry.localeIndexes [i] = localeIndex;
+                entry.slots [i] = slot;
+              }
+            entries.put (item.getKey (), entry);
+          }
+        LocaleTable [] tables = new LocaleTable [localeIndexes.size ()];
+        for (Map.Entry<String, Integer> locale : localeIndexes.entrySet ())
+          {
+            List<String> messages = localeMessages.get (locale.getValue ());
+            tables [locale.getValue ()] =
+                new LocaleTable (locale.getKey (), messages.size (),
+                                 deflate (messages));
+          }
+        return new I18nColdCatalog (tables, entries);
+      } // of
+
+    /**
+     * Deflate a table of messages.
+     * 
+     * @param messages the messages
+     * @return the deflated block
+     */
+    private static byte [] deflate (List<String> messages)
+      {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+        Deflater deflater = new Deflater (Deflater.BEST_COMPRESSION);
+        try (DataOutputStream output = new DataOutputStream
+                 (new DeflaterOutputStream (bytes, deflater)))
+          {
+            for (String message : messages)
+              {
+                byte [] messageBytes = message.getBytes (CatalogFile.UTF_8);
+                output.writeInt (messageBytes.length);
+                output.write (messageBytes);
+              }
+          }
+        catch (IOException e)
+          {
+            // not expected from a byte array stream...
+            throw new IllegalStateException (e);
+          }
+        finally
+          {
+            deflater.end ();
+          }
+        return bytes.toByteArray ();
+      } // deflate
+
+    /**
+     * Read a cold catalog from a byte array, as produced by
+     * {@link #toByteArray()}.
+     * 
+     * @param bytes the array holding the whole catalog
+     * @return the cold catalog
+     * @throws IOException should the array not hold a valid catalog
+     */
+    public static I18nColdCatalog of (byte [] bytes)
+        throws IOException
+      {
+        DataInputStream input =
+            new DataInputStream (new ByteArrayInputStream (bytes));
+        if (input.readInt () != MAGIC || input.readInt () != VERSION)
+          {
+            throw new IOException ("Not an i18n cold catalog of version " +
+                                   VERSION);
+          }
+        // every table takes at least its locale tag length, message count
+        // and block length
+        int tableCount = input.readInt ();
+        if (tableCount < 0 || tableCount > input.available () / 10)
+          {
+            throw new IOException ("Corrupt i18n cold catalog");
+          }
+        LocaleTable [] tables = new LocaleTable [tableCount];
+        for (int i = 0; i < tables.length; i++)
+          {
+            String localeTag = input.readUTF ();
+            int count = input.readInt ();
+            int length = input.readInt ();
+            if (count < 0 || length < 0 || length > input.available ())
+              {
+                throw new IOException ("Corrupt i18n cold catalog");
+              }
+            byte [] compressed = new byte [length];
+            input.readFully (compressed);
+            tables [i] = new LocaleTable (localeTag, count, compressed);
+            tables [i].validate ();
+          }
+        int itemCount = input.readInt ();
+        if (itemCount < 0)
+          {
+            throw new IOException ("Corrupt i18n cold catalog");
+          }
+        LinkedHashMap<String, Entry> entries =
+            new LinkedHashMap<String, Entry> ();
+        for (int i = 0; i < itemCount; i++)
+          {
+            String key = input.readUTF ();
+            int count = input.readInt ();
+            if (count < 0 || count > tables.length)
+              {
+                throw new IOException ("Corrupt i18n cold catalog");
+              }
+            Entry entry = new Entry (count);
+            for (int j = 0; j < count; j++)
+              {
+                entry.localeIndexes [j] = input.readInt ();
+                entry.slots [j] = input.readInt ();
+                if (entry.localeIndexes [j] < 0 ||
+                    entry.localeIndexes [j] >= tables.length ||
+                    entry.slots [j] < 0 ||
+                    entry.slots [j] >= tables [entry.localeIndexes [j]].count)
+                  {
+                    throw new IOException ("Corrupt i18n cold catalog");
+                  }
+              }
+            entries.put (key, entry);
+          }
+        return new I18nColdCatalog (tables, entries);
+      } // of
+
+    /**
+     * Read a cold catalog file, as written by {@link #write(Path)}.
+     * 
+     * @param file the cold catalog file
+     * @return the cold catalog
+     * @throws IOException should the file be unreadable or not hold a valid
+     *                     catalog
+     */
+    public static I18nColdCatalog read (Path file)
+        throws IOException
+      {
+        return of (Files.readAllBytes (file));
+      } // read
+
+    /**
+     * Get this cold catalog as a byte array, with all messages compressed.
+     * 
+     * @return the byte array
+     */
+    public byte [] toByteArray ()
+      {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+        try (DataOutputStream output = new DataOutputStream (bytes))
+          {
+            output.writeInt (MAGIC);
+            output.writeInt (VERSION);
+            output.writeInt (this.tables.length);
+            for (LocaleTable table : this.tables)
+              {
+                output.writeUTF (table.localeTag);
+                output.writeInt (table.count);
+                output.writeInt (table.compressed.length);
+                output.write (table.compressed);
+              }
+            output.writeInt (this.entries.size ());
+            for (Map.Entry<String, Entry> item : this.entries.entrySet ())
+              {
+                output.writeUTF (item.getKey ());
+                Entry entry = item.getValue ();
+                output.writeInt (entry.slots.length);
+                for (int i = 0; i < entry.slots.length; i++)
+                  {
+                    output.writeInt (entry.localeIndexes [i]);
+                    output.writeInt (entry.slots [i]);
+                  }
+              }
+          }
+        catch (IOException e)
+          {
+            // not expected from a byte array stream...
+            throw new IllegalStateException (e);
+          }
+        return bytes.toByteArray ();
+      } // toByteArray
+
+    /**
+     * Write this cold catalog to a file.
+     * 
+     * @param file the cold catalog file
+     * @throws IOException as thrown upon writing
+     */
+    public void write (Path file)
+        throws IOException
+      {
+        Files.write (file, this.toByteArray ());
+      } // write
+
+    /**
+     * Switch items held by static fields of given classes to this cold
+     * catalog. Items not found in the catalog keep their messages.
+     * 
+     * @param holders classes declaring static {@link I18nItem} fields
+     * @return the number of items switched
+     */
+    public int bind (Class<?>... holders)
+      {
+        // items having the same locales share their locale tags, tables and
+        // languages
+        Map<String, ColdMessageStore> prototypes =
+            new HashMap<String, ColdMessageStore> ();
+        int count = 0;
+        for (Class<?> holder : holders)
+          {
+            for (Map.Entry<String, I18nItem> item :
+                   I18nItemRegistry.collectItems (holder).entrySet ())
+              {
+                Entry entry = this.entries.get (item.getKey ());
+                if (entry == null)
+                  {
+                    continue;
+                  }
+                String key = Arrays.toString (entry.localeIndexes);
+                ColdMessageStore prototype = prototypes.get (key);
+                ColdMessageStore store;
+                if (prototype == null)
+                  {
+                    int length = entry.localeIndexes.length;
+                    String [] localeTags = new String [length];
+                    String [] languages = new String [length];
+                    LocaleTable [] tables = new LocaleTable [length];
+                    for (int i = 0; i < length; i++)
+                      {
+                        tables [i] = this.tables [entry.localeIndexes [i]];
+                        localeTags [i] = tables [i].localeTag;
+                        languages [i] = tables [i].language;
+                      }
+                    store = new ColdMessageStore (localeTags, tables,
+                                                  entry.slots);
+                    store.presetLanguages (languages);
+                    prototypes.put (key, store);
+                  }
+                else
+                  {
+                    store = prototype.withSlots (entry.slots);
+                  }
+                item.getValue ().replaceStore (store);
+                count++;
+              }
+          }
+        return count;
+      } // bind
+
+    /**
+     * Drop all materialized locale tables, to be materialized anew on the
+     * next request.
+     */
+    public void evict ()
+      {
+        for (LocaleTable table : this.tables)
+          {
+            table.evict ();
+          }
+      } // evict
+
+    /**
+     * Get locales whose tables are currently materialized.
+     * 
+     * @return {@link java.util.Locale#toLanguageTag() locale language tags}
+     */
+    public String [] getMaterializedLocaleTags ()
+      {
+        List<String> localeTags = new ArrayList<String> ();
+        for (LocaleTable table : this.tables)
+          {
+            if (table.peek () != null)
+              {
+                localeTags.add (table.localeTag);
+              }
+          }
+        return localeTags.toArray (new String [localeTags.size ()]);
+      } // getMaterializedLocaleTags
+
+    /**
+     * Get the total size of compressed messages.
+     * 
+     * @return the size in bytes
+     */
+    public int getCompressedSize ()
+      {
+        int size = 0;
+        for (LocaleTable table : this.tables)
+          {
+            size += table.compressed.length;
+          }
+        return size;
+      } // getCompressedSize
+
+  } // class I18nColdCatalog
@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Localized labels of constants of an enum type, kept as one
+ * ordinal-indexed array per locale.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Labels for every locale are given in the order of enum constants, and
+ * the number of labels is checked against the number of constants, at compile
+ * time by the annotation processor from the
+ * {@code usn-i18n-nobundle-processor} module, and upon construction anyway.
+ * Locale matching follows that of {@link I18nItem}, with the best locale being
+ * found only once for all enums and items having the same locales available.
+ * Labels of all constants for a locale, as needed for drop-down lists and
+ * report columns, are available both as a list and as an {@link EnumMap},
+ * created once per locale and cached.</p>
+ * 
+ * <p>A simple usage example:</p>
+ * <pre>
+ * enum Color { RED, GREEN, BLUE }
+ * static final I18nEnum&lt;Color&gt; COLORS = new I18nEnum&lt;Color&gt;
+ *     (Color.class,
+ *      labels ("en", "Red", "Green", "Blue"),
+ *      labels ("de", "Rot", "Gr&uuml;n", "Blau"));
+ * ...
+ * String label = COLORS.s (Color.GREEN);
+ * List&lt;String&gt; options = COLORS.getLabels ();
+ * </pre>
+ * 
+ * @param <E> the enum type
+ */
+public final class I18nEnum<E extends Enum<E>>
+  {
+    /**
+     * Labels of all constants for a locale, in the order of constants.
+     */
+    public static final class Labels
+      {
+        /**
+         * The {@link Locale#toLanguageTag() locale language tag}.
+         */
+        final String localeTag;
+
+        /**
+         * Labels, in the order of constants.
+         */
+        final String [] labels;
+
+        /**
+         * The constructor to be used by {@link I18nEnum#labels}.
+         * 
+         * @param localeTag the locale language tag
+         * @param labels labels, in the order of constants
+         */
+        private Labels (String localeTag, String [] labels)
+          {
+            this.localeTag = localeTag;
+            this.labels = labels;
+          } // Labels
+      } // class Labels
+
+    /**
+     * The enum type.
+     */
+    private final Class<E> enumClass;
+
+    /**
+     * The shared descriptor of the set of locales available.
+     */
+    private final LocaleSet localeSet;
+
+    /**
+     * Labels, indexed by indexes of locales in {@link #localeSet} and by
+     * ordinals of constants.
+     */
+    private final String [][] labels;
+
+    /**
+     * Lists of labels, locale by locale. Created lazily.
+     */
+    private final List<?> [] labelLists;
+
+    /**
+     * Maps of labels, locale by locale. Created lazily.
+     */
+    private final Map<?, ?> [] labelMaps;
+
+    /**
+     * A "syntactic sugar" shorthand method to specify labels of all constants
+     * for a locale, similar to {@link LocalizedMessage#lm(String,String)}.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     * @param labels labels, in the order of constants
+     * @return a new {@link Labels} instance
+     */
+    public static Labels labels (String localeTag, String... labels)
+      {
+        return new Labels (localeTag, labels.clone ());
+      } // labels
+
+    /**
+     * The public constructor.
+     * 
+     * @param enumClass the enum type
+     * @param data labels of all constants for various locales; should a
+     *             locale be given more than once, the last labels win
+     * @throws IllegalArgumentException should the number of labels for some
+     *                                  locale not match the number of
+     *                                  constants
+     */
+    public I18nEnum (Class<E> enumClass, Labels... data)
+        throws IllegalArgumentException
+      {
+        int count = enumClass.getEnumConstants ().length;
+        Map<String, String []> labels = new LinkedHashMap<String, String []> ();
+        for (Labels localeLabels : data)
+          {
+            if (localeLabels.labels.length != count)
+              {
+                throw new IllegalArgumentException
+                  (enumClass.getName () + " has " + count +
+                   " constants, while " + localeLabels.labels.length +
+                   " labels are given for locale " + localeLabels.localeTag);
+              }
+            labels.put (localeLabels.localeTag, localeLabels.labels);
+          }
+        this.enumClass = enumClass;
+        this.localeSet =
+            LocaleSet.of (labels.keySet ().toArray (new String [0]));
+        this.labels = labels.values ().toArray (new String [0] []);
+        this.labelLists = new List<?> [this.labels.length];
+        this.labelMaps = new Map<?, ?> [this.labels.length];
+      } // I18nEnum
+
+    /**
+     * Get the enum type.
+     * 
+     * @return the enum type
+     */
+    public Class<E> getEnumClass ()
+      {
+        return this.enumClass;
+      } // getEnumClass
+
+    /**
+     * Get locales available.
+     * 
+     * @return an array of {@link Locale#toLanguageTag() locale language tags}
+     */
+    public String [] getLocaleTags ()
+      {
+        return this.localeSet.localeTags.clone ();
+      } // getLocaleTags
+
+    /**
+     * Find the index of the best locale for given preferences.
+     * 
+     * @param handler the handler in place
+     * @param preferences user locale preferences
+     * @return the index of the best locale
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    private int resolve (I18nHandler handler, LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        return handler.resolveLocaleIndex (this.localeSet, preferences);
+      } // resolve
+
+    /**
+     * Find the index of the best locale for the current user.
+     * 
+     * @return the index of the best locale
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    private int resolve ()
+        throws NoSuchElementException
+      {
+        I18nHandler handler = I18nHandler.getHandler ();
+        return this.resolve (handler, handler.getUserLocalePreferences ());
+      } // resolve
+
+    /**
+     * Find the index of the best locale for the user represented by
+     * {@code contextData}.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @return the index of the best locale
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    @SuppressWarnings ("unchecked")
+    private <TContext> int resolveInContext (TContext contextData)
+        throws NoSuchElementException
+      {
+        I18nHandler handler = I18nHandler.getHandler ();
+        LocalePreferences preferences =
+            (handler instanceof I18nHandlerInContext) ?
+              ((I18nHandlerInContext<TContext>) handler)
+                .getUserLocalePreferences (contextData) :
+              handler.getUserLocalePreferences ();
+        return this.resolve (handler, preferences);
+      } // resolveInContext
+
+    /**
+     * Find the index of a locale, falling back to the first locale.
+     * 
+     * @param localeTag the locale language tag
+     * @return the index of the locale
+     */
+    private int indexOf (String localeTag)
+      {
+        int index = this.localeSet.indexOf (localeTag);
+        return (index >= 0) ? index : 0;
+      } // indexOf
+
+    /**
+     * Get the label of a constant for the current user.
+     * 
+     * @param constant the constant
+     * @return the label
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    public String s (E constant)
+        throws NoSuchElementException
+      {
+        return this.labels [this.resolve ()] [constant.ordinal ()];
+      } // s
+
+    /**
+     * Get the label of a constant for the user represented by
+     * {@code contextData}, to be used with {@link I18nHandlerInContext}
+     * subclasses.
+     * 
+     * @param <TContext> the same class as {@code TContext} for
+     *                   {@link I18nHandlerInContext} subclass being used
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param constant the constant
+     * @return the label
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    public <TContext> String s (TContext contextData, E constant)
+        throws NoSuchElementException
+      {
+        return this.labels [this.resolveInContext (contextData)]
+                          [constant.ordinal ()];
+      } // s
+
+    /**
+     * Get the best locale for the current user.
+     * 
+     * @return the {@link Locale#toLanguageTag() locale language tag} of the
+     *         best locale
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    public String getBestLocaleTag ()
+        throws NoSuchElementException
+      {
+        return this.localeSet.localeTags [this.resolve ()];
+      } // getBestLocaleTag
+
+    /**
+     * Get the best locale for the user represented by {@code contextData}.
+     * 
+     * @param <TContext> the same class as {@code TContext} for
+     *                   {@link I18nHandlerInContext} subclass being used
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @return the {@link Locale#toLanguageTag() locale language tag} of the
+     *         best locale
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    public <TContext> String getBestLocaleTagInContext (TContext contextData)
+        throws NoSuchElementException
+      {
+        return this.localeSet.localeTags
+                 [this.resolveInContext (contextData)];
+      } // getBestLocaleTagInContext
+
+    /**
+     * Get the best locale for locale preferences negotiated beforehand.
+     * 
+     * @param preferences user locale preferences
+     * @return the {@link Locale#toLanguageTag() locale language tag} of the
+     *         best locale
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    public String getBestLocaleTag (LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        return this.localeSet.localeTags
+                 [this.resolve (I18nHandler.getHandler (), preferences)];
+      } // getBestLocaleTag
+
+    /**
+     * Get labels of all constants for the current user.
+     * 
+     * @return an unmodifiable list of labels in the order of constants,
+     *         cached per locale
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    public List<String> getLabels ()
+        throws NoSuchElementException
+      {
+        return this.getLabels (this.resolve ());
+      } // getLabels
+
+    /**
+     * Get labels of all constants for a locale. Should the locale be
+     * unavailable, labels for the first locale available are returned.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     *                  of one of the locales available, typically the best
+     *                  locale found beforehand
+     * @return an unmodifiable list of labels in the order of constants,
+     *         cached per locale
+     */
+    public List<String> getLabels (String localeTag)
+      {
+        return this.getLabels (this.indexOf (localeTag));
+      } // getLabels
+
+    /**
+     * Get labels of all constants for a locale, creating and caching the
+     * list on first use.
+     * 
+     * @param index the index of the locale
+     * @return the list of labels
+     */
+    @SuppressWarnings ("unchecked")
+    private List<String> getLabels (int index)
+      {
+        // a race here may only cause a list being created twice, and lists
+        // are immutable, so no locking is necessary
+        List<String> list = (List<String>) this.labelLists [index];
+        if (list == null)
+          {
+            list = Collections.unmodifiableList
+                     (Arrays.asList (this.labels [index]));
+            this.labelLists [index] = list;
+          }
+        return list;
+      } // getLabels
+
+    /**
+     * Get labels of all constants for the current user as a map.
+     * 
+     * @return an unmodifiable {@link EnumMap} of labels, cached per locale
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    public Map<E, String> getLabelMap ()
+        throws NoSuchElementException
+      {
+        return this.getLabelMap (this.resolve ());
+      } // getLabelMap
+
+    /**
+     * Get labels of all constants for a locale as a map. Should the locale be
+     * unavailable, labels for the first locale available are returned.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     *                  of one of the locales available
+     * @return an unmodifiable {@link EnumMap} of labels, cached per locale
+     */
+    public Map<E, String> getLabelMap (String localeTag)
+      {
+        return this.getLabelMap (this.indexOf (localeTag));
+      } // getLabelMap
+
+    /**
+     * Get labels of all constants for a locale as a map, creating and caching
+     * the map on first use.
+     * 
+     * @param index the index of the locale
+     * @return the map of labels
+     */
+    @SuppressWarnings ("unchecked")
+    private Map<E, String> getLabelMap (int index)
+      {
+        Map<E, String> map = (Map<E, String>) this.labelMaps [index];
+        if (map == null)
+          {
+            EnumMap<E, String> labels = new EnumMap<E, String> (this.enumClass);
+            for (E constant : this.enumClass.getEnumConstants ())
+              {
+                labels.put (constant,
+                            this.labels [index] [constant.ordinal ()]);
+              }
+            map = Collections.unmodifiableMap (labels);
+            this.labelMaps [index] = map;
+          }
+        return map;
+      } // getLabelMap
+
+  } // class I18nEnum
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+/**
+ * <p>A ready-to-use servlet {@link Filter} that negotiates user locale
+ * preferences up front for every request, to be used together with
+ * {@link I18nHandlerForServletRequest} and its subclasses.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Negotiated preferences are kept as a request attribute named
+ * {@link I18nHandlerForServletRequest#LOCALE_PREFERENCES_ATTRIBUTE}, so every
+ * {@link I18nItemInContext} lookup within the request just reuses them. The
+ * filter does nothing unless an {@link I18nHandlerForServletRequest} instance
+ * is in place.</p>
+ * 
+ * <p>A typical {@code web.xml} fragment might look like this:</p>
+ * <pre>
+ * &lt;filter&gt;
+ *   &lt;filter-name&gt;i18n&lt;/filter-name&gt;
+ *   &lt;filter-class&gt;usn.i18n.nobundle.I18nFilterForServletRequest&lt;/filter-class&gt;
+ * &lt;/filter&gt;
+ * &lt;filter-mapping&gt;
+ *   &lt;filter-name&gt;i18n&lt;/filter-name&gt;
+ *   &lt;url-pattern&gt;/*&lt;/url-pattern&gt;
+ * &lt;/filter-mapping&gt;
+ * </pre>
+ */
+public class I18nFilterForServletRequest
+    implements Filter
+  {
+    /**
+     * An empty implementation, as the filter takes no configuration.
+     * 
+     * @param filterConfig the filter configuration, ignored
+     */
+    @Override
+    public void init (FilterConfig filterConfig)
+      {
+      } // init
+
+    /**
+     * Negotiate user locale preferences for the request and pass the request
+     * along the chain.
+     * 
+     * @param request the request to negotiate locale preferences for
+     * @param response the response, passed along as is
+     * @param chain the filter chain to pass the request along
+     * @throws IOException as thrown by the rest of the chain
+     * @throws ServletException as thrown by the rest of the chain
+     */
+    @Override
+    public void doFilter (ServletRequest request, ServletResponse response,
+                          FilterChain chain)
+        throws IOException, ServletException
+      {
+        I18nHandler handler = I18nHandler.getHandler ();
+        if (handler instanceof I18nHandlerForServletRequest)
+          {
+            ((I18nHandlerForServletRequest) handler)
+                .getUserLocalePreferences (request);
+          }
+        chain.doFilter (request, response);
+      } // doFilter
+
+    /**
+     * An empty implementation, as the filter holds no resources.
+     */
+    @Override
+    public void destroy ()
+      {
+      } // destroy
+
+  } // class I18nFilterForServletRequest
@@ -29,12 +29,12 @@
 
 package usn.i18n.nobundle;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.lang.reflect.Method;
 import java.util.Locale;
-import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <p>The basic handler class in the hierarchy that implements an approach when
@@ -43,7 +43,7 @@ import java.util.NoSuchElementException;
  * application.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2015-01-19
+ * @version 2026-10-19
  * 
  * <p>This class specifies the most basic handler methods. It also declares and
  * sustains an {@code I18nHandler} singleton to be used by {@link I18nItem}
@@ -55,15 +55,60 @@ import java.util.NoSuchElementException;
  * <li>optionally override the {@link #getDefaultLocaleTag()} method;</li>
  * </ul>
  * 
+ * <p>Locales are matched by walking fallback chains of preferred locales, or
+ * by scoring available locales with an {@link I18nLocaleMatcher} if one is
+ * {@link #setLocaleMatcher(I18nLocaleMatcher) set}. Matching results are
+ * shared by items, groups, enums, sorters, search indexes and bulk renderers
+ * alike, so matching is best customized via {@link #getUserLocaleTags()},
+ * {@link #getUserLocalePreferences()}, {@link #getDefaultLocaleTag()} and
+ * {@link #setLocaleMatcher(I18nLocaleMatcher)}. Subclasses overriding
+ * {@link #findBestLocaleTag(I18nItem,LocalePreferences)} or
+ * {@link #findBestLocaleTag(I18nItem,String[])} are still served: the
+ * override is detected once per handler, and is then consulted for every
+ * item looked up, at the cost of results being no longer shared. Enums are
+ * not items, so they always use the shared matching.</p>
+ * 
+ * <p>The handler singleton may be replaced at runtime: a new handler is to be
+ * created detached via the {@link #I18nHandler(boolean)} constructor,
+ * configured, and then put in place atomically via
+ * {@link #replace(I18nHandler)}. Replacing the handler, as well as calling
+ * {@link #invalidateCaches()}, advances the {@link #getEpoch() epoch}, which
+ * makes all negotiated {@link LocalePreferences} kept for reuse stale, with no
+ * locking involved.</p>
+ * 
+ * <p>Should the library be shared by several applications, each of them may
+ * have its own handler, put in place for its context class loader. See
+ * {@link #I18nHandler(boolean)} and {@link #install(ClassLoader)}.</p>
+ * 
  * <p>See {@linkplain usn.i18n.nobundle package info} for a usage example.</p>
  */
 public class I18nHandler
   {
     /**
      * The application-specific {@code I18nHandler} subclass instance to be
-     * used. Established by the constructor.
+     * used. Established by the constructor and possibly replaced later via
+     * {@link #replace(I18nHandler)}.
+     */
+    private static final AtomicReference<I18nHandler> handler =
+        new AtomicReference<I18nHandler> ();
+
+    /**
+     * Handlers put in place for individual class loaders in addition to the
+     * main {@link #handler}, for cases of the library being shared by several
+     * applications, like web applications in a servlet container with the
+     * library in a common 'lib' directory. Remains {@code null} as long as
+     * there are no such handlers, so that {@link #getHandler()} stays a single
+     * read in the most common case.
      */
-    private static I18nHandler handler = null;
+    private static volatile ConcurrentHashMap<ClassLoader, I18nHandler>
+        classLoaderHandlers = null;
+
+    /**
+     * The epoch counter, to be advanced whenever the handler is replaced or
+     * its configuration changes, so that any cached results of negotiation
+     * and resolution may be recognized as stale without locking.
+     */
+    private static final AtomicLong epoch = new AtomicLong ();
 
     /**
      * The default locale to be used by an application, represented by its
@@ -73,12 +118,53 @@ public class I18nHandler
     private static final String defaultLocaleTag =
         Locale.getDefault ().toLanguageTag ();
 
+    /**
+     * The maximum number of locales in {@link #localeCache}, for arbitrary
+     * locale tags coming from requests not to grow it unbounded.
+     */
+    private static final int MAX_CACHED_LOCALES = 1024;
+
     /**
      * The local locale cache, arranged to avoid repeated calls for
      * {@link Locale#forLanguageTag(String)}.
      */
-    private static final Map<String, Locale> localeCache =
-        new HashMap<String, Locale> ();
+    private static final ConcurrentHashMap<String, Locale> localeCache =
+        new ConcurrentHashMap<String, Locale> ();
+
+    /**
+     * The class loader this handler has been put in place for, if any.
+     */
+    private volatile ClassLoader classLoader = null;
+
+    /**
+     * The locale matcher to be used instead of walking fallback chains, if
+     * any.
+     */
+    private volatile I18nLocaleMatcher localeMatcher = null;
+
+    /**
+     * The value of {@link #matchingHook} for handlers overriding no locale
+     * matching hook.
+     */
+    private static final int HOOK_NONE = 0;
+
+    /**
+     * The value of {@link #matchingHook} for handlers overriding
+     * {@link #findBestLocaleTag(I18nItem,LocalePreferences)}.
+     */
+    private static final int HOOK_PREFERENCES = 1;
+
+    /**
+     * The value of {@link #matchingHook} for handlers overriding
+     * {@link #findBestLocaleTag(I18nItem,String[])} only.
+     */
+    private static final int HOOK_TAGS = 2;
+
+    /**
+     * The locale matching hook overridden by the class of this handler, one
+     * of {@link #HOOK_NONE}, {@link #HOOK_PREFERENCES} and {@link #HOOK_TAGS}.
+     */
+    private final int matchingHook = findMatchingHook (this.getClass ());
 
     /**
      * The no-argument constructor to be used by subclasses. Checks and assigns
@@ -86,28 +172,233 @@ public class I18nHandler
      */
     protected I18nHandler ()
       {
-        if (handler != null)
+        this (true);
+      } // I18nHandler
+
+    /**
+     * The constructor to be used by subclasses that need to create a handler
+     * without putting it in place immediately, typically to replace another
+     * handler at runtime via {@link #replace(I18nHandler)}.
+     * 
+     * <p>A handler being put in place while another one is already there is
+     * only allowed if the current thread's context class loader differs from
+     * that of the existing handler; the new handler is then put in place for
+     * that class loader and its descendants only, as if by
+     * {@link #install(ClassLoader)}. This allows every web application in a
+     * servlet container to have its own handler while sharing one copy of the
+     * library.</p>
+     * 
+     * @param install {@code true} to check and assign the {@code I18nHandler}
+     *                singleton like the no-argument constructor does,
+     *                {@code false} to leave the new handler detached
+     */
+    protected I18nHandler (boolean install)
+      {
+        if (install)
           {
-            throw new IllegalStateException
-              ("An I18nHandler instance is already in place.");
+            ClassLoader contextClassLoader =
+                Thread.currentThread ().getContextClassLoader ();
+            this.classLoader = contextClassLoader;
+            if (!handler.compareAndSet (null, this))
+              {
+                I18nHandler mainHandler = handler.get ();
+                if (contextClassLoader == null ||
+                    mainHandler == null ||
+                    contextClassLoader == mainHandler.classLoader ||
+                    !this.putInPlaceFor (contextClassLoader))
+                  {
+                    throw new IllegalStateException
+                      ("An I18nHandler instance is already in place.");
+                  }
+              }
+            epoch.incrementAndGet ();
           }
-        handler = this;
       } // I18nHandler
 
+    /**
+     * Put this handler in place for given class loader.
+     * 
+     * @param classLoader the class loader to put this handler in place for
+     * @return {@code true} on success, {@code false} if another handler is in
+     *         place for the class loader already
+     */
+    private boolean putInPlaceFor (ClassLoader classLoader)
+      {
+        ConcurrentHashMap<ClassLoader, I18nHandler> handlers =
+            classLoaderHandlers;
+        if (handlers == null)
+          {
+            synchronized (I18nHandler.class)
+              {
+                handlers = classLoaderHandlers;
+                if (handlers == null)
+                  {
+                    handlers =
+                        new ConcurrentHashMap<ClassLoader, I18nHandler> ();
+                    classLoaderHandlers = handlers;
+                  }
+              }
+          }
+        this.classLoader = classLoader;
+        return handlers.putIfAbsent (classLoader, this) == null;
+      } // putInPlaceFor
+
+    /**
+     * Put this handler in place for threads with given context class loader
+     * or any of its descendants, in addition to the main handler. This
+     * handler is expected to have been created detached.
+     * 
+     * @param classLoader the class loader to put this handler in place for
+     * @throws IllegalStateException if another handler is in place for the
+     *                               class loader already
+     */
+    public final void install (ClassLoader classLoader)
+        throws IllegalStateException
+      {
+        if (!this.putInPlaceFor (classLoader))
+          {
+            throw new IllegalStateException
+              ("An I18nHandler instance is already in place " +
+               "for the class loader.");
+          }
+        epoch.incrementAndGet ();
+      } // install
+
+    /**
+     * Atomically put this handler in place instead of another one, typically
+     * to change the default locale or preference policies at runtime. All
+     * caches that depend on the handler are invalidated. This handler is
+     * expected to have been created detached, and to be fully configured
+     * before the call. A handler in place for a class loader is replaced for
+     * that class loader.
+     * 
+     * @param predecessor the handler that is expected to be in place
+     * @throws IllegalStateException if {@code predecessor} is not in place
+     *                               any more
+     */
+    public final void replace (I18nHandler predecessor)
+        throws IllegalStateException
+      {
+        ClassLoader classLoader =
+            (predecessor != null) ? predecessor.classLoader : null;
+        this.classLoader = classLoader;
+        if (!handler.compareAndSet (predecessor, this))
+          {
+            ConcurrentHashMap<ClassLoader, I18nHandler> handlers =
+                classLoaderHandlers;
+            if (handlers == null ||
+                classLoader == null ||
+                !handlers.replace (classLoader, predecessor, this))
+              {
+                throw new IllegalStateException
+                  ("The I18nHandler instance to be replaced is not in place.");
+              }
+          }
+        epoch.incrementAndGet ();
+      } // replace
+
+    /**
+     * Remove this handler from where it has been put in place, typically
+     * when a web application is being stopped, so to let its class loader be
+     * garbage collected.
+     */
+    public final void uninstall ()
+      {
+        if (!handler.compareAndSet (this, null))
+          {
+            ConcurrentHashMap<ClassLoader, I18nHandler> handlers =
+                classLoaderHandlers;
+            ClassLoader classLoader = this.classLoader;
+            if (handlers != null && classLoader != null)
+              {
+                handlers.remove (classLoader, this);
+              }
+          }
+        epoch.incrementAndGet ();
+      } // uninstall
+
     /**
      * The method to be used by {@link I18nItem} subclasses for obtaining a
-     * reference to the {@code I18nHandler} singleton.
+     * reference to the {@code I18nHandler} singleton; made public to allow
+     * the handler being replaced at runtime. Returns the handler put in place
+     * for the current thread's context class loader or the nearest of its
+     * ancestors, if any, and the main handler otherwise.
      * 
      * @return reference to the 'handler' singleton
      */
-    static I18nHandler getHandler ()
+    public static I18nHandler getHandler ()
       {
-          return handler;
+        ConcurrentHashMap<ClassLoader, I18nHandler> handlers =
+            classLoaderHandlers;
+        if (handlers != null)
+          {
+            for (ClassLoader classLoader =
+                     Thread.currentThread ().getContextClassLoader ();
+                 classLoader != null;
+                 classLoader = classLoader.getParent ())
+              {
+                I18nHandler classLoaderHandler = handlers.get (classLoader);
+                if (classLoaderHandler != null)
+                  {
+                    return classLoaderHandler;
+                  }
+              }
+          }
+        return handler.get ();
       } // getHandler
 
+    /**
+     * Get the current epoch, to be stored along with cached results that
+     * depend on the handler and compared later to check if they are still
+     * valid.
+     * 
+     * @return the current epoch value
+     */
+    public static long getEpoch ()
+      {
+        return epoch.get ();
+      } // getEpoch
+
+    /**
+     * Invalidate all caches that depend on the handler, to be called by
+     * applications whenever the configuration of the handler in place
+     * changes, like the default locale being changed.
+     */
+    public static void invalidateCaches ()
+      {
+        epoch.incrementAndGet ();
+      } // invalidateCaches
+
+    /**
+     * Set the locale matcher to score available locales by their language
+     * distance from preferred ones, instead of walking fallback chains of
+     * preferred locales. All caches that depend on the handler are
+     * invalidated.
+     * 
+     * @param localeMatcher the matcher, or {@code null} to walk fallback
+     *                      chains
+     */
+    public final void setLocaleMatcher (I18nLocaleMatcher localeMatcher)
+      {
+        this.localeMatcher = localeMatcher;
+        epoch.incrementAndGet ();
+      } // setLocaleMatcher
+
+    /**
+     * Get the locale matcher in use.
+     * 
+     * @return the matcher, or {@code null} if fallback chains are walked
+     */
+    public final I18nLocaleMatcher getLocaleMatcher ()
+      {
+        return this.localeMatcher;
+      } // getLocaleMatcher
+
     /**
      * The procedure to query and populate the local locale cache, indexed by
-     * language tags; made public to allow {@link I18nItem} subclassing.
+     * language tags; made public to allow {@link I18nItem} subclassing. The
+     * cache is bounded, and locales beyond the bound are created anew with
+     * every call.
      * 
      * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
      *                  to query for
@@ -115,87 +406,228 @@ public class I18nHandler
      */
     public static Locale localeForLanguageTag (String localeTag)
       {
-        if (localeCache.containsKey (localeTag))
-            {
-              return localeCache.get (localeTag);
-            }
-          else
-            {
-              Locale locale = Locale.forLanguageTag (localeTag);
-              localeCache.put (localeTag, locale);
-              return locale;
-            }
+        Locale locale = localeCache.get (localeTag);
+        if (locale == null)
+          {
+            locale = Locale.forLanguageTag (localeTag);
+            if (localeCache.size () < MAX_CACHED_LOCALES)
+              {
+                localeCache.putIfAbsent (localeTag, locale);
+              }
+          }
+        return locale;
       } // localeForLanguageTag
 
+    /**
+     * Query the local locale cache without populating it, to be used for
+     * locale tags coming from users rather than from items, so that junk
+     * tags do not pollute the cache.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     *                  to query for
+     * @return a {@link Locale} instance, either from cache or new
+     */
+    static Locale lookupLocale (String localeTag)
+      {
+        Locale locale = localeCache.get (localeTag);
+        return (locale != null) ? locale : Locale.forLanguageTag (localeTag);
+      } // lookupLocale
+
     /**
      * The core method to be used by {@code I18nHandler} subclasses to find
      * the best locale suitable for given user for given {@link I18nItem}
-     * instance, with user locale preferences already having been identified.
+     * instance, with user locale preferences already having been negotiated.
      * Tries to find a match for user preferences first, either exact match for
-     * user preferred locale or approximate match for language part thereof,
-     * then for application default locale, then for any English flavor, and
-     * finally tries to return just anything available. In case of several
-     * locales available for one language in the {@link I18nItem} instance, and
-     * only language being matched, the last locale supplied upon {@code item}
-     * construction wins.
+     * user preferred locale or for a locale of its
+     * {@link I18nLocaleFallback fallback chain}, or approximate match for
+     * language part thereof, then for application default locale, then for any
+     * English flavor, and finally tries to return just anything available. In
+     * case of several locales available for one language in the
+     * {@link I18nItem} instance, and only language being matched, the last
+     * locale supplied upon {@code item} construction wins. Should a
+     * {@link #setLocaleMatcher(I18nLocaleMatcher) locale matcher} be set, the
+     * matcher finds the best locale instead. The result is remembered by the
+     * {@link LocaleSet} shared by all items having the same locales.
      * 
      * @param item an internationalized message instance
-     * @param userLocaleTags an array of user preferred locales represented by
-     *                       their {@link Locale#toLanguageTag() language tags},
-     *                       best preferred coming first
+     * @param preferences user locale preferences as negotiated beforehand
      * @return {@link Locale#toLanguageTag() language tag} for the best suitable
      *         locale found
      * @throws NoSuchElementException should the {@code item} happen to be empty
      */
     protected String findBestLocaleTag
-        (I18nItem item, String [] userLocaleTags)
+        (I18nItem item, LocalePreferences preferences)
         throws NoSuchElementException // not required, just to be documented...
       {
-        // construct the language-to-locale mapping lazily for the item
-        if (item.localeTagsForLanguages == null)
+        LocaleSet localeSet = item.store.localeSet;
+        return localeSet.localeTags
+                 [this.resolveLocaleIndex (localeSet, preferences)];
+      } // findBestLocaleTag
+
+    /**
+     * Find out which locale matching hook, if any, is overridden by a handler
+     * class or its superclasses, the most derived override winning.
+     * 
+     * @param handlerClass the class of a handler
+     * @return one of {@link #HOOK_NONE}, {@link #HOOK_PREFERENCES} and
+     *         {@link #HOOK_TAGS}
+     */
+    private static int findMatchingHook (Class<?> handlerClass)
+      {
+        try
           {
-            item.localeTagsForLanguages = new HashMap<String, String> ();
-            for (String localeTag : item.messages.keySet ())
+            for (Class<?> type = handlerClass;
+                 type != I18nHandler.class;
+                 type = type.getSuperclass ())
               {
-                // and it's the last locale tag for a given language to win...
-                item.localeTagsForLanguages.put
-                  (localeForLanguageTag (localeTag).getLanguage (),
-                   localeTag);
+                for (Method method : type.getDeclaredMethods ())
+                  {
+                    if (!method.getName ().equals ("findBestLocaleTag") ||
+                        method.getParameterTypes ().length != 2 ||
+                        method.getParameterTypes () [0] != I18nItem.class)
+                      {
+                        continue;
+                      }
+                    Class<?> parameterType = method.getParameterTypes () [1];
+                    if (parameterType == LocalePreferences.class)
+                      {
+                        return HOOK_PREFERENCES;
+                      }
+                    if (parameterType == String [].class)
+                      {
+                        return HOOK_TAGS;
+                      }
+                  }
               }
+            return HOOK_NONE;
+          }
+        catch (SecurityException e)
+          {
+            // calling the hook is always correct, just not as cheap...
+            return HOOK_PREFERENCES;
+          }
+      } // findMatchingHook
+
+    /**
+     * Check if this handler overrides a locale matching hook, so that locales
+     * are to be resolved item by item rather than once per set of locales.
+     * 
+     * @return {@code true} if a hook is overridden
+     */
+    final boolean hasMatchingHook ()
+      {
+        return this.matchingHook != HOOK_NONE;
+      } // hasMatchingHook
+
+    /**
+     * Find the index of the best locale for an item in a store of its
+     * messages, as per {@link #findBestLocaleTag(I18nItem,LocalePreferences)},
+     * consulting the hook overridden by this handler, if any. The store of an
+     * item may be replaced at runtime, so the index is only meaningful for
+     * the very store instance it has been found for, and the message is to be
+     * read from that instance as well.
+     * 
+     * @param item the item
+     * @param store a snapshot of the store of messages of the item
+     * @param preferences user locale preferences as negotiated beforehand
+     * @return the index of the best locale in the store
+     * @throws NoSuchElementException should the store happen to be empty
+     */
+    final int resolveLocaleIndex (I18nItem item, MessageStore store,
+                                  LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        LocaleSet localeSet = store.localeSet;
+        if (this.matchingHook == HOOK_NONE)
+          {
+            return this.resolveLocaleIndex (localeSet, preferences);
           }
-        // construct the overall collection of locales to try for this item;
-        // use LinkedHashSet as a collection that preserves addition order and
-        // avoids duplicates
-        LinkedHashSet<String> localeTagsToTry =
-            new LinkedHashSet<String> (Arrays.asList (userLocaleTags));
-        localeTagsToTry.add (this.getDefaultLocaleTag ());
-        localeTagsToTry.add (Locale.ENGLISH.toLanguageTag ());
-        // declare a variable for the result
-        String bestLocaleTag = null;
+        String localeTag = (this.matchingHook == HOOK_TAGS) ?
+            this.findBestLocaleTag (item, preferences.userLocaleTags) :
+            this.findBestLocaleTag (item, preferences);
+        int index = localeSet.indexOf (localeTag);
+        // the hook sees the current store of the item, which may have been
+        // replaced since the snapshot was taken...
+        return (index >= 0) ? index :
+                              this.resolveLocaleIndex (localeSet, preferences);
+      } // resolveLocaleIndex
+
+    /**
+     * Find the index of the best locale in a set of locales, as per
+     * {@link #findBestLocaleTag(I18nItem,LocalePreferences)}, without
+     * consulting any overridden hook. The result is remembered by the set.
+     * 
+     * @param localeSet the set of locales of an item
+     * @param preferences user locale preferences as negotiated beforehand
+     * @return the index of the best locale in the set
+     * @throws NoSuchElementException should the set happen to be empty
+     */
+    final int resolveLocaleIndex (LocaleSet localeSet,
+                                  LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        return localeSet.resolve (preferences, this.localeMatcher);
+      } // resolveLocaleIndex
+
+    /**
+     * Find the index of the best locale in a set of locales by walking
+     * fallback chains of preferred locales, as per
+     * {@link #findBestLocaleTag(I18nItem,LocalePreferences)}.
+     * 
+     * @param localeSet the set of locales of an item
+     * @param preferences user locale preferences as negotiated beforehand
+     * @return the index of the best locale in the set
+     * @throws NoSuchElementException should the set happen to be empty
+     */
+    static int findBestLocaleIndex (LocaleSet localeSet,
+                                    LocalePreferences preferences)
+        throws NoSuchElementException
+      {
         // try every locale in the collection in the order of preference
-        for (String localeTag : localeTagsToTry)
+        String [] localeTagsToTry = preferences.localeTagsToTry;
+        for (int i = 0; i < localeTagsToTry.length; i++)
           {
-            // first try every locale exactly
-            if (item.messages.containsKey (localeTag))
-              {
-                bestLocaleTag = localeTag;
-                break;
-              }
-            // and if no luck, try approximate match via language only
-            String language = localeForLanguageTag (localeTag).getLanguage ();
-            if (item.localeTagsForLanguages.containsKey (language))
+            int index = (localeTagsToTry [i] != null) ?
+                          // try locales of fallback chains exactly
+                          localeSet.indexOf (localeTagsToTry [i]) :
+                          // and then approximately via language only
+                          localeSet.indexOfLanguage
+                            (preferences.languagesToTry [i]);
+            if (index >= 0)
               {
-                bestLocaleTag = item.localeTagsForLanguages.get (language);
-                break;
+                return index;
               }
           }
         // if no luck then try just any locale available for this item
-        if (bestLocaleTag == null)
+        if (localeSet.localeTags.length == 0)
           {
-            // this may occasionally throw java.util.NoSuchElementException ...
-            bestLocaleTag =  item.messages.keySet ().iterator ().next ();
+            throw new NoSuchElementException ();
           }
-        return bestLocaleTag;
+        return 0;
+      } // findBestLocaleIndex
+
+    /**
+     * Similar to {@link #findBestLocaleTag(I18nItem,LocalePreferences)}, but
+     * takes user locale preferences as an array of locale language tags. The
+     * method negotiates the preferences anew with every call, so it is
+     * preferable to negotiate them once with
+     * {@link #newLocalePreferences(String[])} whenever the same preferences
+     * are to be used repeatedly.
+     * 
+     * @param item an internationalized message instance
+     * @param userLocaleTags an array of user preferred locales represented by
+     *                       their {@link Locale#toLanguageTag() language tags},
+     *                       best preferred coming first
+     * @return {@link Locale#toLanguageTag() language tag} for the best suitable
+     *         locale found
+     * @throws NoSuchElementException should the {@code item} happen to be empty
+     */
+    protected String findBestLocaleTag
+        (I18nItem item, String [] userLocaleTags)
+        throws NoSuchElementException // not required, just to be documented...
+      {
+        return this.findBestLocaleTag
+                 (item, this.newLocalePreferences (userLocaleTags));
       } // findBestLocaleTag
 
     /**
@@ -211,9 +643,69 @@ public class I18nHandler
     protected String findBestLocaleTag (I18nItem item)
         throws NoSuchElementException // not required, just to be documented...
       {
-        return this.findBestLocaleTag (item, this.getUserLocaleTags ());
+        return this.findBestLocaleTag (item, this.getUserLocalePreferences ());
       } // findBestLocaleTag
 
+    /**
+     * Negotiate user locale preferences, represented as an array of locale
+     * language tags, into a {@link LocalePreferences} instance, to be further
+     * reused for any number of item lookups.
+     * 
+     * @param userLocaleTags an array of user preferred locales represented by
+     *                       their {@link Locale#toLanguageTag() language tags},
+     *                       best preferred coming first
+     * @return a new {@link LocalePreferences} instance
+     */
+    protected LocalePreferences newLocalePreferences (String [] userLocaleTags)
+      {
+        // read the epoch first, so that a configuration change landing in
+        // between makes the result stale rather than current forever
+        long epoch = getEpoch ();
+        return new LocalePreferences (userLocaleTags,
+                                      this.getDefaultLocaleTag (), epoch);
+      } // newLocalePreferences
+
+    /**
+     * Negotiate user locale preferences, represented as an array of locale
+     * language tags along with their quality values, like those of
+     * {@code Accept-Language} headers, into a {@link LocalePreferences}
+     * instance. Quality values are taken into account by
+     * {@link I18nLocaleMatcher}, while locales with zero quality are not
+     * acceptable in any case.
+     * 
+     * @param userLocaleTags an array of user preferred locales represented by
+     *                       their {@link Locale#toLanguageTag() language tags},
+     *                       best preferred coming first
+     * @param userWeights quality values of user preferred locales, index by
+     *                    index with {@code userLocaleTags}, or {@code null}
+     * @return a new {@link LocalePreferences} instance
+     * @throws IllegalArgumentException if {@code userWeights} does not match
+     *                                  {@code userLocaleTags} in length
+     */
+    protected LocalePreferences newLocalePreferences (String [] userLocaleTags,
+                                                      float [] userWeights)
+        throws IllegalArgumentException
+      {
+        // read the epoch first, see above
+        long epoch = getEpoch ();
+        return new LocalePreferences (userLocaleTags, userWeights,
+                                      this.getDefaultLocaleTag (), epoch);
+      } // newLocalePreferences
+
+    /**
+     * The method to be used internally to obtain negotiated locale
+     * preferences for the current user. The default implementation negotiates
+     * the result of {@link #getUserLocaleTags()} with every call; subclasses
+     * that are able to keep negotiated preferences for reuse are welcome to
+     * override it.
+     * 
+     * @return negotiated locale preferences for the current user
+     */
+    protected LocalePreferences getUserLocalePreferences ()
+      {
+        return this.newLocalePreferences (this.getUserLocaleTags ());
+      } // getUserLocalePreferences
+
     // ---- methods to be overridden by subclasses -----------------------------
 
     /**
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>This {@link I18nHandler} subclass is ready-to-use to implement the
+ * approach with user locale preferences being bound to the current thread for
+ * the duration of a unit of work, like processing a request or a message.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>An application would normally negotiate preferences once per user with
+ * {@link #preferencesFor(String[])}, possibly keeping them for reuse, and then
+ * run every unit of work on behalf of the user via
+ * {@link #runWith(LocalePreferences,Runnable)} or
+ * {@link #callWith(LocalePreferences,Callable)}. Every {@link I18nItem} lookup
+ * within the unit of work then costs a single {@link ThreadLocal} read, with no
+ * preferences being copied or negotiated. Bindings are scoped: they are
+ * restored on exit, may be nested, and leave nothing behind in pooled or
+ * virtual threads.</p>
+ * 
+ * <p>Bindings are not inherited by tasks handed over to other threads; use
+ * {@link #propagate(Runnable)}, {@link #propagate(Callable)} or
+ * {@link #propagate(Executor)} to carry the current binding over to tasks
+ * submitted to an {@link java.util.concurrent.ExecutorService ExecutorService}
+ * or chained to a {@code CompletableFuture}.</p>
+ * 
+ * <p>Bindings are shared by all instances of this class, so that units of
+ * work in flight keep their preferences when the handler is
+ * {@link I18nHandler#replace(I18nHandler) replaced}; the new handler then
+ * negotiates them anew, weights included.</p>
+ * 
+ * <p>Outside of any binding the application default locale is used.</p>
+ */
+public class I18nHandlerForCurrentThread
+    extends I18nHandler
+  {
+    /**
+     * Preferences bound to the current thread, if any, shared by all
+     * instances so that bindings survive replacing the handler.
+     */
+    private static final ThreadLocal<LocalePreferences> currentPreferences =
+        new ThreadLocal<LocalePreferences> ();
+
+    /**
+     * Preferences to be used outside of any binding. Created lazily.
+     */
+    private volatile LocalePreferences defaultPreferences = null;
+
+    /**
+     * The no-argument constructor, establishing the new instance as the
+     * {@link I18nHandler} singleton.
+     */
+    public I18nHandlerForCurrentThread ()
+      {
+        super ();
+      } // I18nHandlerForCurrentThread
+
+    /**
+     * The constructor to create an instance without putting it in place
+     * immediately, see {@link I18nHandler#I18nHandler(boolean)}.
+     * 
+     * @param install {@code true} to establish the new instance as the
+     *                {@link I18nHandler} singleton, {@code false} to leave it
+     *                detached
+     */
+    public I18nHandlerForCurrentThread (boolean install)
+      {
+        super (install);
+      } // I18nHandlerForCurrentThread
+
+    /**
+     * Negotiate preferences for a user, to be further bound to threads any
+     * number of times.
+     * 
+     * @param userLocaleTags an array of user preferred locales represented by
+     *                       their {@link Locale#toLanguageTag() language tags},
+     *                       best preferred coming first
+     * @return negotiated locale preferences
+     */
+    public LocalePreferences preferencesFor (String... userLocaleTags)
+      {
+        return this.newLocalePreferences (userLocaleTags);
+      } // preferencesFor
+
+    /**
+     * Get preferences bound to the current thread.
+     * 
+     * @return preferences bound to the current thread, or {@code null} if none
+     */
+    public LocalePreferences getCurrentPreferences ()
+      {
+        return currentPreferences.get ();
+      } // getCurrentPreferences
+
+    /**
+     * Run a task with given preferences bound to the current thread, restoring
+     * the previous binding afterwards.
+     * 
+     * @param preferences preferences to bind, or {@code null} to run the task
+     *                    with no binding
+     * @param task the task to run
+     */
+    public void runWith (LocalePreferences preferences, Runnable task)
+      {
+        LocalePreferences previous = this.bind (preferences);
+        try
+          {
+            task.run ();
+          }
+        finally
+          {
+            this.bind (previous);
+          }
+      } // runWith
+
+    /**
+     * Call a task with given preferences bound to the current thread,
+     * restoring the previous binding afterwards.
+     * 
+     * @param <V> the result type of the task
+     * @param preferences preferences to bind, or {@code null} to call the task
+     *                    with no binding
+     * @param task the task to call
+     * @return the result of the task
+     * @throws Exception as thrown by the task
+     */
+    public <V> V callWith (LocalePreferences preferences, Callable<V> task)
+        throws Exception
+      {
+        LocalePreferences previous = this.bind (preferences);
+        try
+          {
+            return task.call ();
+          }
+        finally
+          {
+            this.bind (previous);
+          }
+      } // callWith
+
+    /**
+     * Wrap a task so that it runs with the preferences that are bound to the
+     * current thread at the moment of wrapping, whatever thread it is run
+     * with.
+     * 
+     * @param task the task to wrap
+     * @return a wrapping task
+     */
+    public Runnable propagate (final Runnable task)
+      {
+        final LocalePreferences preferences = currentPreferences.get ();
+        return new Runnable ()
+          {
+            @Override
+            public void run ()
+              {
+                runWith (preferences, task);
+              } // run
+          };
+      } // propagate
+
+    /**
+     * Wrap a task so that it is called with the preferences that are bound to
+     * the current thread at the moment of wrapping, whatever thread it is
+     * called with.
+     * 
+     * @param <V> the result type of the task
+     * @param task the task to wrap
+     * @return a wrapping task
+     */
+    public <V> Callable<V> propagate (final Callable<V> task)
+      {
+        final LocalePreferences preferences = currentPreferences.get ();
+        return new Callable<V> ()
+          {
+            @Override
+            public V call ()
+                throws Exception
+              {
+                return callWith (preferences, task);
+              } // call
+          };
+      } // propagate
+
+    /**
+     * Wrap an {@link Executor} so that every task submitted to it runs with
+     * the preferences that are bound to the submitting thread at the moment of
+     * submission. Suitable for passing to {@code CompletableFuture} async
+     * methods.
+     * 
+     * @param executor the executor to wrap
+     * @return a wrapping executor
+     */
+    public Executor propagate (final Executor executor)
+      {
+        return new Executor ()
+          {
+            @Override
+            public void execute (Runnable task)
+              {
+                executor.execute (propagate (task));
+              } // execute
+          };
+      } // propagate
+
+    /**
+     * Bind preferences to the current thread.
+     * 
+     * @param preferences preferences to bind, or {@code null} to remove the
+     *                    binding
+     * @return the previous binding, or {@code null} if none
+     */
+    private LocalePreferences bind (LocalePreferences preferences)
+      {
+        LocalePreferences previous = currentPreferences.get ();
+        if (preferences != null)
+            {
+              currentPreferences.set (preferences);
+            }
+          else
+            {
+              currentPreferences.remove ();
+            }
+        return previous;
+      } // bind
+
+    /**
+     * An implementation of the method to obtain negotiated locale preferences
+     * that returns preferences bound to the current thread, falling back to
+     * the application default locale.
+     * 
+     * @return negotiated locale preferences for the current thread
+     */
+    @Override
+    protected LocalePreferences getUserLocalePreferences ()
+      {
+        LocalePreferences preferences = currentPreferences.get ();
+        if (preferences != null)
+          {
+            // preferences negotiated before the handler has been replaced or
+            // reconfigured are to be negotiated anew, replacing the binding so
+            // that the rest of the unit of work does not repeat that
+            if (!preferences.isCurrent ())
+              {
+                preferences =
+                    this.newLocalePreferences (preferences.userLocaleTags,
+                                               preferences.userWeights);
+                currentPreferences.set (preferences);
+              }
+            return preferences;
+          }
+        preferences = this.defaultPreferences;
+        if (preferences == null || !preferences.isCurrent ())
+          {
+            preferences = super.getUserLocalePreferences ();
+            this.defaultPreferences = preferences;
+          }
+        return preferences;
+      } // getUserLocalePreferences
+
+    /**
+     * An implementation of the method to get an array of user preferred
+     * {@link Locale#toLanguageTag() locale language tags} that returns those
+     * of preferences bound to the current thread.
+     * 
+     * @return an array of {@link Locale#toLanguageTag() language tags} bound
+     *         to the current thread, falling back to the application default
+     *         locale
+     */
+    @Override
+    protected String [] getUserLocaleTags ()
+      {
+        LocalePreferences preferences = currentPreferences.get ();
+        return (preferences != null) ?
+                 preferences.getUserLocaleTags () : super.getUserLocaleTags ();
+      } // getUserLocaleTags
+
+  } // class I18nHandlerForCurrentThread
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.Serializable;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * <p>This {@link I18nHandlerForServletRequest} subclass is ready-to-use to
+ * implement the approach with user locale preferences being kept in
+ * {@link HttpSession} across requests, typically for authenticated users.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>User locale preferences are taken from an explicit user setting, if one
+ * has been stored into the session via
+ * {@link #setUserLocaleTags(HttpSession,String[])}, and otherwise from
+ * {@code Accept-Language} headers. Once negotiated, preferences are kept in the
+ * session and reused by subsequent requests for as long as neither the
+ * {@code Accept-Language} header nor the explicit user setting changes, and the
+ * preferences remain {@link LocalePreferences#isCurrent() current}. Requests
+ * without a session are served exactly like by the superclass, with no session
+ * being created.</p>
+ */
+public class I18nHandlerForHttpSession
+    extends I18nHandlerForServletRequest
+  {
+    /**
+     * The name of the {@link HttpSession} attribute to keep an explicit user
+     * setting for preferred locales in, as an array of
+     * {@link Locale#toLanguageTag() locale language tags}.
+     */
+    public static final String USER_LOCALE_TAGS_ATTRIBUTE =
+        I18nHandlerForHttpSession.class.getName () + ".userLocaleTags";
+
+    /**
+     * The name of the {@link HttpSession} attribute to keep negotiated
+     * preferences in.
+     */
+    static final String SESSION_PREFERENCES_ATTRIBUTE =
+        I18nHandlerForHttpSession.class.getName () + ".preferences";
+
+    /**
+     * The class to hold negotiated preferences in a session together with the
+     * data they were negotiated from.
+     */
+    private static final class SessionPreferences
+        implements Serializable
+      {
+        private static final long serialVersionUID = 1L;
+
+        final String acceptLanguage;
+        final String [] explicitLocaleTags;
+        final LocalePreferences preferences;
+
+        SessionPreferences (String acceptLanguage,
+                            String [] explicitLocaleTags,
+                            LocalePreferences preferences)
+          {
+            this.acceptLanguage = acceptLanguage;
+            this.explicitLocaleTags = explicitLocaleTags;
+            this.preferences = preferences;
+          } // SessionPreferences
+
+        boolean isValidFor (String acceptLanguage,
+                            String [] explicitLocaleTags)
+          {
+            return this.preferences.isCurrent () &&
+                   (this.acceptLanguage == null ?
+                      acceptLanguage == null :
+                      this.acceptLanguage.equals (acceptLanguage)) &&
+                   Arrays.equals (this.explicitLocaleTags, explicitLocaleTags);
+          } // isValidFor
+      } // class SessionPreferences
+
+    /**
+     * The no-argument constructor, establishing the new instance as the
+     * {@link I18nHandler} singleton.
+     */
+    public I18nHandlerForHttpSession ()
+      {
+        super ();
+      } // I18nHandlerForHttpSession
+
+    /**
+     * The constructor to create an instance without putting it in place
+     * immediately, see {@link I18nHandler#I18nHandler(boolean)}.
+     * 
+     * @param install {@code true} to establish the new instance as the
+     *                {@link I18nHandler} singleton, {@code false} to leave it
+     *                detached
+     */
+    public I18nHandlerForHttpSession (boolean install)
+      {
+        super (install);
+      } // I18nHandlerForHttpSession
+
+    /**
+     * Store an explicit user setting for preferred locales into a session,
+     * invalidating preferences negotiated for the session before.
+     * 
+     * @param session the session to store the setting into
+     * @param userLocaleTags an array of user preferred locales represented by
+     *                       their {@link Locale#toLanguageTag() language tags},
+     *                       best preferred coming first, or {@code null} to
+     *                       remove an explicit setting and revert to
+     *                       {@code Accept-Language} headers
+     */
+    public static void setUserLocaleTags (HttpSession session,
+                                          String [] userLocaleTags)
+      {
+        if (userLocaleTags != null && userLocaleTags.length != 0)
+            {
+              session.setAttribute (USER_LOCALE_TAGS_ATTRIBUTE,
+                                    userLocaleTags.clone ());
+            }
+          else
+            {
+              session.removeAttribute (USER_LOCALE_TAGS_ATTRIBUTE);
+            }
+        session.removeAttribute (SESSION_PREFERENCES_ATTRIBUTE);
+      } // setUserLocaleTags
+
+    /**
+     * Retrieve an explicit user setting for preferred locales from a session.
+     * 
+     * @param session the session to retrieve the setting from, may be
+     *                {@code null}
+     * @return an array of {@link Locale#toLanguageTag() locale language tags}
+     *         as stored into the session, or {@code null} if none
+     */
+    private static String [] getExplicitLocaleTags (HttpSession session)
+      {
+        Object attribute = (session != null) ?
+            session.getAttribute (USER_LOCALE_TAGS_ATTRIBUTE) : null;
+        return (attribute instanceof String []) ?
+            (String []) attribute : null;
+      } // getExplicitLocaleTags
+
+    /**
+     * An implementation of the method to get an array of user preferred
+     * locales that honours an explicit user setting stored in the session
+     * before falling back to {@code Accept-Language} headers.
+     * 
+     * @param contextData a {@link javax.servlet.ServletRequest ServletRequest}
+     *                    instance to retrieve user preferences from
+     * @return an array of {@link Locale#toLanguageTag() locale language tags}
+     *         for user's preferred locales, best preferred coming first
+     */
+    @Override
+    protected String [] getUserLocaleTags (ServletRequest contextData)
+      {
+        if (contextData instanceof HttpServletRequest)
+          {
+            String [] explicitLocaleTags = getExplicitLocaleTags
+                (((HttpServletRequest) contextData).getSession (false));
+            if (explicitLocaleTags != null && explicitLocaleTags.length != 0)
+              {
+                return explicitLocaleTags.clone ();
+              }
+          }
+        return super.getUserLocaleTags (contextData);
+      } // getUserLocaleTags
+
+    /**
+     * An implementation of the method to get quality values of user preferred
+     * locales that ignores {@code Accept-Language} headers if preferred
+     * locales are set explicitly for the session.
+     * 
+     * @param contextData a {@link javax.servlet.ServletRequest ServletRequest}
+     *                    instance to retrieve user preferences from
+     * @param userLocaleTags user preferred locales as returned by
+     *                       {@link #getUserLocaleTags(ServletRequest)}
+     * @return an array of quality values, index by index with
+     *         {@code userLocaleTags}, or {@code null} if not specified
+     */
+    @Override
+    protected float [] getUserLocaleWeights (ServletRequest contextData,
+                                             String [] userLocaleTags)
+      {
+        if (contextData instanceof HttpServletRequest)
+          {
+            HttpSession session =
+                ((HttpServletRequest) contextData).getSession (false);
+            if (session != null)
+              {
+                String [] explicitLocaleTags = getExplicitLocaleTags (session);
+                if (explicitLocaleTags != null &&
+                    explicitLocaleTags.length != 0)
+                  {
+                    return null;
+                  }
+              }
+          }
+        return super.getUserLocaleWeights (contextData, userLocaleTags);
+      } // getUserLocaleWeights
+
+    /**
+     * An implementation of the method to negotiate locale preferences for a
+     * request that reuses preferences kept in the session, provided they were
+     * negotiated from the same {@code Accept-Language} header and the same
+     * explicit user setting, and otherwise negotiates them anew and keeps
+     * them in the session.
+     * 
+     * @param contextData a {@link javax.servlet.ServletRequest ServletRequest}
+     *                    instance to retrieve user preferences from
+     * @return negotiated locale preferences for the request
+     */
+    @Override
+    protected LocalePreferences negotiateUserLocalePreferences
+        (ServletRequest contextData)
+      {
+        if (!(contextData instanceof HttpServletRequest))
+          {
+            return super.negotiateUserLocalePreferences (contextData);
+          }
+        HttpServletRequest request = (HttpServletRequest) contextData;
+        HttpSession session = request.getSession (false);
+        if (session == null)
+          {
+            return super.negotiateUserLocalePreferences (contextData);
+          }
+        String acceptLanguage = request.getHeader ("Accept-Language");
+        String [] explicitLocaleTags = getExplicitLocaleTags (session);
+        Object attribute = session.getAttribute (SESSION_PREFERENCES_ATTRIBUTE);
+        if (attribute instanceof SessionPreferences)
+          {
+            SessionPreferences sessionPreferences =
+                (SessionPreferences) attribute;
+            if (sessionPreferences.isValidFor (acceptLanguage,
+                                               explicitLocaleTags))
+              {
+                return sessionPreferences.preferences;
+              }
+          }
+        LocalePreferences preferences =
+            super.negotiateUserLocalePreferences (contextData);
+        session.setAttribute (SESSION_PREFERENCES_ATTRIBUTE,
+                              new SessionPreferences (acceptLanguage,
+                                                      explicitLocaleTags,
+                                                      preferences));
+        return preferences;
+      } // negotiateUserLocalePreferences
+
+  } // class I18nHandlerForHttpSession
@@ -30,10 +30,13 @@
 package usn.i18n.nobundle;
 
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Vector;
 
 import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
 
 /**
  * <p>This {@link I18nHandlerInContext} subclass is ready-to-use to implement
@@ -42,16 +45,101 @@ import javax.servlet.ServletRequest;
  * headers.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>You may optionally wish to further subclass this class to override the
- * {@link #getDefaultLocaleTag()} method. You may also wish to subclass this
- * class for retrieving locale preferences for authenticated users via some
- * {@link javax.servlet.http.HttpSession HttpSession} attribute.</p>
+ * {@link #getDefaultLocaleTag()} method. For retrieving locale preferences for
+ * authenticated users via {@link javax.servlet.http.HttpSession HttpSession}
+ * attributes see {@link I18nHandlerForHttpSession}.</p>
+ * 
+ * <p>Locale preferences are negotiated only once per request and kept as a
+ * request attribute named {@link #LOCALE_PREFERENCES_ATTRIBUTE} for the rest of
+ * the request. {@link I18nFilterForServletRequest} may be used to have them
+ * negotiated up front.</p>
+ * 
+ * <p>Quality values of {@code Accept-Language} headers are passed along with
+ * preferred locales, to be taken into account by {@link I18nLocaleMatcher}.
+ * </p>
  */
 public class I18nHandlerForServletRequest
     extends I18nHandlerInContext<ServletRequest>
   {
+    /**
+     * The name of the {@link javax.servlet.ServletRequest ServletRequest}
+     * attribute to keep negotiated {@link LocalePreferences} in.
+     */
+    public static final String LOCALE_PREFERENCES_ATTRIBUTE =
+        LocalePreferences.class.getName ();
+
+    /**
+     * The no-argument constructor, establishing the new instance as the
+     * {@link I18nHandler} singleton.
+     */
+    public I18nHandlerForServletRequest ()
+      {
+        super ();
+      } // I18nHandlerForServletRequest
+
+    /**
+     * The constructor to create an instance without putting it in place
+     * immediately, see {@link I18nHandler#I18nHandler(boolean)}.
+     * 
+     * @param install {@code true} to establish the new instance as the
+     *                {@link I18nHandler} singleton, {@code false} to leave it
+     *                detached
+     */
+    public I18nHandlerForServletRequest (boolean install)
+      {
+        super (install);
+      } // I18nHandlerForServletRequest
+
+    /**
+     * An implementation of the method to obtain negotiated locale preferences
+     * that negotiates them only once per request, keeping the result as a
+     * request attribute for reuse for as long as it is
+     * {@link LocalePreferences#isCurrent() current}.
+     * 
+     * @param contextData a {@link javax.servlet.ServletRequest ServletRequest}
+     *                    instance to retrieve user preferences from
+     * @return negotiated locale preferences for the request
+     */
+    @Override
+    protected LocalePreferences getUserLocalePreferences
+        (ServletRequest contextData)
+      {
+        Object attribute =
+            contextData.getAttribute (LOCALE_PREFERENCES_ATTRIBUTE);
+        if (attribute instanceof LocalePreferences &&
+            ((LocalePreferences) attribute).isCurrent ())
+          {
+            return (LocalePreferences) attribute;
+          }
+        LocalePreferences preferences =
+            this.negotiateUserLocalePreferences (contextData);
+        contextData.setAttribute (LOCALE_PREFERENCES_ATTRIBUTE, preferences);
+        return preferences;
+      } // getUserLocalePreferences
+
+    /**
+     * The method to actually negotiate locale preferences for a request when
+     * they are not yet available as a request attribute. The default
+     * implementation negotiates the result of
+     * {@link #getUserLocaleTags(ServletRequest)} along with the result of
+     * {@link #getUserLocaleWeights(ServletRequest,String[])}.
+     * 
+     * @param contextData a {@link javax.servlet.ServletRequest ServletRequest}
+     *                    instance to retrieve user preferences from
+     * @return newly negotiated locale preferences for the request
+     */
+    protected LocalePreferences negotiateUserLocalePreferences
+        (ServletRequest contextData)
+      {
+        String [] userLocaleTags = this.getUserLocaleTags (contextData);
+        return this.newLocalePreferences
+                 (userLocaleTags,
+                  this.getUserLocaleWeights (contextData, userLocaleTags));
+      } // negotiateUserLocalePreferences
+
     /**
      * An implementation of the method to get an array of user preferred
      * locales from a {@link javax.servlet.ServletRequest ServletRequest}
@@ -60,19 +148,22 @@ public class I18nHandlerForServletRequest
      * @param contextData a {@link javax.servlet.ServletRequest ServletRequest}
      *                    instance to retrieve user preferences from
      * @return an array of {@link Locale#toLanguageTag() locale language tags}
-     *         as specified by the {@code ServletRequest}, falling back to the
-     *         application default locale if empty
+     *         as specified by the {@code ServletRequest}, no more than
+     *         {@link LocalePreferences#MAX_USER_LOCALES} of them, falling back
+     *         to the application default locale if empty
      */
     @Override
     protected String [] getUserLocaleTags (ServletRequest contextData)
       {
         Vector<String> localeTags = new Vector<String> ();
         Enumeration<Locale> locales = contextData.getLocales ();
-        while (locales.hasMoreElements ())
+        while (locales.hasMoreElements () &&
+               localeTags.size () < LocalePreferences.MAX_USER_LOCALES)
           {
             Locale locale = locales.nextElement ();
             String localeTag = locale.toLanguageTag ();
-            if (!localeTag.isEmpty ())
+            if (!localeTag.isEmpty () &&
+                localeTag.length () <= LocalePreferences.MAX_LOCALE_TAG_LENGTH)
               {
                 localeTags.add (localeTag);
               }
@@ -82,4 +173,124 @@ public class I18nHandlerForServletRequest
             super.getUserLocaleTags (contextData);
       } // getUserLocaleTags
 
+    /**
+     * Get quality values of user preferred locales from {@code q} parameters
+     * of {@code Accept-Language} headers of a
+     * {@link javax.servlet.ServletRequest ServletRequest} instance.
+     * 
+     * @param contextData a {@link javax.servlet.ServletRequest ServletRequest}
+     *                    instance to retrieve user preferences from
+     * @param userLocaleTags user preferred locales as returned by
+     *                       {@link #getUserLocaleTags(ServletRequest)}
+     * @return an array of quality values, index by index with
+     *         {@code userLocaleTags}, {@code 1.0} for locales not found in the
+     *         headers, or {@code null} if there are no headers
+     */
+    protected float [] getUserLocaleWeights (ServletRequest contextData,
+                                             String [] userLocaleTags)
+      {
+        if (!(contextData instanceof HttpServletRequest))
+          {
+            return null;
+          }
+        Enumeration<String> headers =
+            ((HttpServletRequest) contextData).getHeaders ("Accept-Language");
+        if (headers == null || !headers.hasMoreElements ())
+          {
+            return null;
+          }
+        Map<String, Float> weights = new HashMap<String, Float> ();
+        int entryCount = 0;
+        while (headers.hasMoreElements () &&
+               entryCount < LocalePreferences.MAX_USER_LOCALES)
+          {
+            entryCount += parseAcceptLanguage
+                            (headers.nextElement (), weights,
+                             LocalePreferences.MAX_USER_LOCALES - entryCount);
+          }
+        float [] result = new float [userLocaleTags.length];
+        for (int i = 0; i < result.length; i++)
+          {
+            Float weight = weights.get (userLocaleTags [i]);
+            result [i] = (weight != null) ? weight.floatValue () : 1.0f;
+          }
+        return result;
+      } // getUserLocaleWeights
+
+    /**
+     * Parse an {@code Accept-Language} header value into quality values
+     * indexed by {@link Locale#toLanguageTag() locale language tags}. Entries
+     * that are malformed, as well as the {@code '*'} wildcard, are ignored.
+     * Entries longer than {@link LocalePreferences#MAX_LOCALE_TAG_LENGTH}
+     * allows for are skipped without being parsed, and the rest of the header
+     * is not looked at once {@code maxEntries} entries have been looked at, so
+     * that an oversized header costs no more than an ordinary one.
+     * 
+     * @param header the header value, like {@code "fr-CH, fr;q=0.9, *;q=0.5"}
+     * @param weights the map to put quality values to
+     * @param maxEntries the maximum number of entries to look at
+     * @return the number of entries looked at
+     */
+    static int parseAcceptLanguage (String header, Map<String, Float> weights,
+                                    int maxEntries)
+      {
+        int entryCount = 0;
+        int start = 0;
+        while (start <= header.length () && entryCount < maxEntries)
+          {
+            int end = header.indexOf (',', start);
+            if (end < 0)
+              {
+                end = header.length ();
+              }
+            String entry = header.substring (start, end);
+            start = end + 1;
+            if (entry.trim ().isEmpty ())
+              {
+                continue;
+              }
+            entryCount++;
+            int separator = entry.indexOf (';');
+            String localeTag = ((separator >= 0) ?
+                                  entry.substring (0, separator) :
+                                  entry).trim ();
+            if (localeTag.isEmpty () || localeTag.equals ("*") ||
+                localeTag.length () > LocalePreferences.MAX_LOCALE_TAG_LENGTH)
+              {
+                continue;
+              }
+            float weight = 1.0f;
+            if (separator >= 0)
+              {
+                for (String parameter :
+                       entry.substring (separator + 1).split (";"))
+                  {
+                    parameter = parameter.trim ();
+                    if (parameter.startsWith ("q=") ||
+                        parameter.startsWith ("Q="))
+                      {
+                        try
+                          {
+                            weight =
+                                Float.parseFloat (parameter.substring (2));
+                          }
+                        catch (NumberFormatException e)
+                          {
+                            weight = Float.NaN;
+                          }
+                      }
+                  }
+              }
+            if (weight >= 0.0f && weight <= 1.0f)
+              {
+                localeTag = Locale.forLanguageTag (localeTag).toLanguageTag ();
+                if (!weights.containsKey (localeTag))
+                  {
+                    weights.put (localeTag, Float.valueOf (weight));
+                  }
+              }
+          }
+        return entryCount;
+      } // parseAcceptLanguage
+
   } // class I18nHandlerForServletRequest
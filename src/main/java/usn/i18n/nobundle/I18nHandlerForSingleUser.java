@@ -37,7 +37,7 @@ import java.util.Locale;
  * user per application instance.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>You may optionally wish to further subclass this class to override the
  * {@link #getDefaultLocaleTag()} method.</p>
@@ -54,19 +54,77 @@ public class I18nHandlerForSingleUser
      */
     private String [] userLocaleTags = new String [0];
 
+    /**
+     * Negotiated preferences for {@link #userLocaleTags}. Created lazily and
+     * reset whenever the setting changes.
+     */
+    private volatile LocalePreferences userLocalePreferences = null;
+
+    /**
+     * The no-argument constructor, establishing the new instance as the
+     * {@link I18nHandler} singleton.
+     */
+    public I18nHandlerForSingleUser ()
+      {
+        super ();
+      } // I18nHandlerForSingleUser
+
+    /**
+     * The constructor to create an instance without putting it in place
+     * immediately, see {@link I18nHandler#I18nHandler(boolean)}.
+     * 
+     * @param install {@code true} to establish the new instance as the
+     *                {@link I18nHandler} singleton, {@code false} to leave it
+     *                detached
+     */
+    public I18nHandlerForSingleUser (boolean install)
+      {
+        super (install);
+      } // I18nHandlerForSingleUser
+
     /**
      * The method to be used for setting arrays of preferred
      * {@link Locale#toLanguageTag() locale language tags}, typically on
-     * per-user basis.
+     * per-user basis. The array is copied, so later changes to it have no
+     * effect.
      * 
      * @param userLocaleTags an array of user preferred locales represented by
-     *                       their {@link Locale#toLanguageTag() language tags}
+     *                       their {@link Locale#toLanguageTag() language tags},
+     *                       or {@code null} to fall back to the application
+     *                       default locale
      */
-    public void setUserLocaleTags (String [] userLocaleTags)
+    public synchronized void setUserLocaleTags (String [] userLocaleTags)
       {
-        this.userLocaleTags = userLocaleTags;
+        this.userLocaleTags = (userLocaleTags != null) ?
+                                userLocaleTags.clone () : new String [0];
+        this.userLocalePreferences = null;
       } // setUserLocaleTags
 
+    /**
+     * An implementation of the method to obtain negotiated locale preferences
+     * that negotiates them only once per setting, unless they become stale.
+     * 
+     * @return negotiated locale preferences for the locally stored setting
+     */
+    @Override
+    protected LocalePreferences getUserLocalePreferences ()
+      {
+        LocalePreferences preferences = this.userLocalePreferences;
+        if (preferences == null || !preferences.isCurrent ())
+          {
+            synchronized (this)
+              {
+                preferences = this.userLocalePreferences;
+                if (preferences == null || !preferences.isCurrent ())
+                  {
+                    preferences = super.getUserLocalePreferences ();
+                    this.userLocalePreferences = preferences;
+                  }
+              }
+          }
+        return preferences;
+      } // getUserLocalePreferences
+
     /**
      * An implementation of the method to get an array of user preferred
      * {@link Locale#toLanguageTag() locale language tags} as a copy of locally
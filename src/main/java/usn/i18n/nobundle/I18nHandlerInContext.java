@@ -37,7 +37,7 @@ import java.util.Locale;
  * {@code TContext} instance; to be subclassed by an application.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>An application using this approach would normally subclass this class
  * and:</p>
@@ -55,6 +55,28 @@ import java.util.Locale;
 public class I18nHandlerInContext<TContext>
     extends I18nHandler
   {
+    /**
+     * The no-argument constructor, establishing the new instance as the
+     * {@link I18nHandler} singleton.
+     */
+    public I18nHandlerInContext ()
+      {
+        super ();
+      } // I18nHandlerInContext
+
+    /**
+     * The constructor to create an instance without putting it in place
+     * immediately, see {@link I18nHandler#I18nHandler(boolean)}.
+     * 
+     * @param install {@code true} to establish the new instance as the
+     *                {@link I18nHandler} singleton, {@code false} to leave it
+     *                detached
+     */
+    public I18nHandlerInContext (boolean install)
+      {
+        super (install);
+      } // I18nHandlerInContext
+
     /**
      * A utility method to be used by {@link I18nItemInContext} subclasses to
      * find the best locale suitable for given user for given
@@ -69,9 +91,27 @@ public class I18nHandlerInContext<TContext>
     protected String findBestLocaleTag (TContext contextData,
                                         I18nItemInContext<TContext> item)
       {
-        return this.findBestLocaleTag (item, getUserLocaleTags (contextData));
+        return this.findBestLocaleTag
+                 (item, this.getUserLocalePreferences (contextData));
       } // findBestLocaleTag
 
+    /**
+     * The method to be used internally to obtain negotiated locale
+     * preferences for the user represented by {@code contextData}. The
+     * default implementation negotiates the result of
+     * {@link #getUserLocaleTags(Object) getUserLocaleTags(TContext)} with every
+     * call; subclasses that are able to keep negotiated preferences for reuse
+     * within the context are welcome to override it.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @return negotiated locale preferences for the user
+     */
+    protected LocalePreferences getUserLocalePreferences (TContext contextData)
+      {
+        return this.newLocalePreferences (this.getUserLocaleTags (contextData));
+      } // getUserLocalePreferences
+
     // ---- methods to be overridden by subclasses -----------------------------
 
     /**
@@ -29,8 +29,12 @@
 
 package usn.i18n.nobundle;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import java.text.MessageFormat;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -42,7 +46,7 @@ import java.util.NoSuchElementException;
  * directly.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>See {@linkplain usn.i18n.nobundle package info} for a usage example.</p>
  */
@@ -51,37 +55,90 @@ public class I18nItem
     /**
      * The main storage of presentations of the same message for different
      * locales. Messages are capable of accepting runtime formatting arguments
-     * in {@link MessageFormat} style.
+     * in {@link MessageFormat} style. The store may be replaced at runtime, so
+     * it is to be read only once per operation.
      */
-    protected LinkedHashMap<String, String> messages =
-        new LinkedHashMap<String, String> ();
+    volatile MessageStore store;
 
     /**
-     * A language-to-locale mapping to be used for approximate locale matching.
-     * Locales are identified via their
-     * {@link Locale#toLanguageTag() language tags}. Created lazily, populated
-     * and further used by
-     * {@link I18nHandler#attemptFindBestLocaleTag (I18nItem,String[]}. In case
-     * of several locales available for one language in the current
-     * {@code I18nItem} instance, the last locale supplied upon construction
-     * wins.
+     * The ID assigned to this item by {@link I18nItemRegistry}.
      */
-    Map<String, String> localeTagsForLanguages;
+    final int id;
 
     /**
-     * The public constructor.
+     * The public constructor. The item is made known to
+     * {@link I18nItemRegistry} only once its own fields are assigned; the
+     * subclasses of the library declare no fields of their own, so they are
+     * complete by then too.
      * 
      * @param data a varargs array of translations for a message to various
      *             locales
      */
     public I18nItem (LocalizedMessage... data)
       {
-        for (LocalizedMessage lm : data)
-          {
-            this.messages.put (lm.localeTag, lm.message);
-          }
+        this.store = HeapMessageStore.fromLocalizedMessages (data);
+        this.id = I18nItemRegistry.reserve ();
+        I18nItemRegistry.publish (this);
+        I18nPatternCompiler.submitNew (this);
+      } // I18nItem
+
+    /**
+     * The constructor for items declared without compiled-in messages, taking
+     * them from a snapshot, so that the messages are only kept by the
+     * snapshot. The key also becomes the
+     * {@link I18nItemRegistry#getName(int) stable name} of the item.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot, like
+     *            {@code com.example.Messages.GREETING}
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItem (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        this.store = snapshot.storeFor (key);
+        this.id = I18nItemRegistry.reserve ();
+        I18nItemRegistry.publish (this);
+        I18nItemRegistry.setName (this, key);
+        I18nPatternCompiler.submitNew (this);
       } // I18nItem
 
+    /**
+     * Replace the store of messages of this item, advancing the
+     * {@link I18nItemRegistry#getGeneration() generation} of the registry.
+     * 
+     * @param store the new store
+     */
+    final void replaceStore (MessageStore store)
+      {
+        this.store = store;
+        I18nItemRegistry.advanceGeneration ();
+      } // replaceStore
+
+    /**
+     * Get the ID assigned to this item by {@link I18nItemRegistry}, dense and
+     * unique among live items, to index per-item data in flat arrays.
+     * 
+     * @return the ID of this item
+     */
+    public final int getId ()
+      {
+        return this.id;
+      } // getId
+
+    /**
+     * Check if messages of this item are formatted with arguments, and hence
+     * are {@link MessageFormat} patterns, rather than used as they are.
+     * 
+     * @return {@code true} if messages are formatted
+     */
+    boolean isFormatted ()
+      {
+        return !(this instanceof I18nItem0) &&
+               !(this instanceof I18nItemInContext0);
+      } // isFormatted
+
     /**
      * Find the best match, exact or approximate, among locales available for
      * this item, for current user. Tries to find exact match for user
@@ -130,11 +187,107 @@ public class I18nItem
      */
     protected LocalizedMessage getBestLocaleAndMessage ()
       {
-        String bestLocaleTag = this.getBestLocaleTag ();
-        return new LocalizedMessage (bestLocaleTag,
-                                     this.messages.get (bestLocaleTag));
+        return this.getLocalizedMessage (this.getUserLocalePreferences ());
       } // getBestLocaleAndMessage
 
+    /**
+     * Get messages for all locales available, as a deprecated replacement for
+     * the {@code messages} field this class used to have. The store of
+     * messages may be replaced at runtime, so the result is a snapshot.
+     * 
+     * @return a new unmodifiable map of messages indexed by
+     *         {@link Locale#toLanguageTag() locale language tags}, in the
+     *         order of their supply
+     * @deprecated messages are kept in a replaceable store now; use
+     *             {@link #getBestLocaleAndMessage()} to obtain a message
+     */
+    @Deprecated
+    protected Map<String, String> getMessages ()
+      {
+        MessageStore store = this.store;
+        LinkedHashMap<String, String> messages =
+            new LinkedHashMap<String, String> ();
+        for (int i = 0; i < store.localeTags.length; i++)
+          {
+            messages.put (store.localeTags [i], store.message (i));
+          }
+        return Collections.unmodifiableMap (messages);
+      } // getMessages
+
+    /**
+     * Obtain negotiated locale preferences for the current user.
+     * 
+     * @return negotiated locale preferences
+     */
+    LocalePreferences getUserLocalePreferences ()
+      {
+        return I18nHandler.getHandler ().getUserLocalePreferences ();
+      } // getUserLocalePreferences
+
+    /**
+     * Find the index of the best locale for given preferences in a snapshot
+     * of the store. The snapshot is to be used for reading the message as
+     * well, so that a store being replaced in between may never yield a
+     * message for another locale.
+     * 
+     * @param store the snapshot of {@link #store}
+     * @param preferences user locale preferences as negotiated beforehand
+     * @return the index of the best locale in the store
+     * @throws NoSuchElementException should this instance happen to be empty
+     */
+    int findBestLocaleIndex (MessageStore store, LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        return I18nHandler.getHandler ().resolveLocaleIndex (this, store,
+                                                             preferences);
+      } // findBestLocaleIndex
+
+    /**
+     * Get the best locale and the message for it for given preferences.
+     * 
+     * @param preferences user locale preferences as negotiated beforehand
+     * @return a new {@link LocalizedMessage} instance for the best locale
+     */
+    LocalizedMessage getLocalizedMessage (LocalePreferences preferences)
+      {
+        MessageStore store = this.store;
+        int index = findBestLocaleIndex (store, preferences);
+        return new LocalizedMessage (store.localeTags [index],
+                                     store.message (index));
+      } // getLocalizedMessage
+
+    /**
+     * Get the message for the best locale for given preferences escaped for
+     * markup, as cached by the store.
+     * 
+     * @param preferences user locale preferences as negotiated beforehand
+     * @param escaping the markup context to escape for
+     * @return the message, escaped
+     */
+    String getEscapedMessage (LocalePreferences preferences,
+                              Escaping escaping)
+      {
+        MessageStore store = this.store;
+        return store.escapedMessage (findBestLocaleIndex (store, preferences),
+                                     escaping);
+      } // getEscapedMessage
+
+    /**
+     * Write the message for the best locale for given preferences to a stream
+     * as UTF-8 bytes, without decoding it whenever the store keeps it
+     * encoded.
+     * 
+     * @param preferences user locale preferences as negotiated beforehand
+     * @param output the stream to write to
+     * @throws IOException as thrown by the stream
+     */
+    void writeMessage (LocalePreferences preferences, OutputStream output)
+        throws IOException
+      {
+        MessageStore store = this.store;
+        store.writeMessage (findBestLocaleIndex (store, preferences), output);
+      } // writeMessage
+
     /**
      * The method to obtain a localized {@link MessageFormat} instance to be
      * used by subclasses that take message formatting arguments.
@@ -150,4 +303,47 @@ public class I18nItem
         return new MessageFormat (pattern, locale);
       } // obtainMessageFormat
 
+    /**
+     * Obtain the message for the best locale for given preferences compiled
+     * for formatting, compiling and caching it on first use.
+     * 
+     * @param preferences user locale preferences as negotiated beforehand
+     * @return the compiled message
+     */
+    CompiledMessage getCompiledMessage (LocalePreferences preferences)
+      {
+        MessageStore store = this.store;
+        return store.compiledMessage (findBestLocaleIndex (store, preferences));
+      } // getCompiledMessage
+
+    /**
+     * Format the message for a locale that is best preferred for the current
+     * user with given arguments, to be used by subclasses that take message
+     * formatting arguments. The pattern is compiled only once per locale, and
+     * formatting avoids synchronized buffers whenever possible, with the
+     * output being identical to that of {@link MessageFormat}.
+     * 
+     * @param arguments message formatting arguments
+     * @return a formatted user locale specific message
+     */
+    protected String format (Object [] arguments)
+      {
+        return this.getCompiledMessage (this.getUserLocalePreferences ())
+                   .format (arguments);
+      } // format
+
+    /**
+     * Similar to {@link #format(Object[])}, but with the message escaped for
+     * markup, with only arguments escaped anew with every call.
+     * 
+     * @param arguments message formatting arguments
+     * @param escaping the markup context to escape for
+     * @return a formatted user locale specific message, escaped
+     */
+    String format (Object [] arguments, Escaping escaping)
+      {
+        return this.getCompiledMessage (this.getUserLocalePreferences ())
+                   .format (arguments, escaping);
+      } // format
+
   } // class I18nItem
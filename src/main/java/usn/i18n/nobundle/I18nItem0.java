@@ -29,12 +29,15 @@
 
 package usn.i18n.nobundle;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * <p>A class that implements multi-locale resource without formatting
  * arguments, to be used together with {@link I18nHandler} subclasses.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>See {@linkplain usn.i18n.nobundle package info} for a usage example.</p>
  */
@@ -52,6 +55,21 @@ public class I18nItem0
         super (data);
       } // I18nItem0
 
+    /**
+     * The constructor for items declared without compiled-in messages, see
+     * {@link I18nItem#I18nItem(I18nCatalogSnapshot,String)}.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItem0 (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        super (snapshot, key);
+      } // I18nItem0
+
     /**
      * The method to obtain a message in a locale that is best preferred for
      * the current user.
@@ -63,6 +81,44 @@ public class I18nItem0
         return this.getBestLocaleAndMessage ().message;
       } // s
 
+    /**
+     * Similar to {@link #s()}, but with the message escaped for HTML. The
+     * escaped message is cached per locale.
+     * 
+     * @return a user locale specific message, escaped for HTML
+     */
+    public String html ()
+      {
+        return this.getEscapedMessage (this.getUserLocalePreferences (),
+                                       Escaping.HTML);
+      } // html
+
+    /**
+     * Similar to {@link #s()}, but with the message escaped for XML. The
+     * escaped message is cached per locale.
+     * 
+     * @return a user locale specific message, escaped for XML
+     */
+    public String xml ()
+      {
+        return this.getEscapedMessage (this.getUserLocalePreferences (),
+                                       Escaping.XML);
+      } // xml
+
+    /**
+     * Write a message in a locale that is best preferred for the current user
+     * to a stream as UTF-8 bytes, without decoding it to a string when kept
+     * as bytes, e.g. in an {@link I18nCatalogSnapshot}.
+     * 
+     * @param output the stream to write to
+     * @throws IOException as thrown by the stream
+     */
+    public void writeTo (OutputStream output)
+        throws IOException
+      {
+        this.writeMessage (this.getUserLocalePreferences (), output);
+      } // writeTo
+
     /**
      * A "bonus" {@link Object#toString() toString()} override to return a
      * message in user specific locale in case of no formatting arguments and no
@@ -29,15 +29,13 @@
 
 package usn.i18n.nobundle;
 
-import java.text.MessageFormat;
-
 /**
  * <p>A class that implements multi-locale resource in
  * {@link java.text.MessageFormat MessageFormat} style with one argument, to be
  * used together with {@link I18nHandler} subclasses.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>See {@linkplain usn.i18n.nobundle package info} for a usage example.</p>
  * 
@@ -57,6 +55,21 @@ public class I18nItem1<TArg1>
         super (data);
       } // I18nItem1
 
+    /**
+     * The constructor for items declared without compiled-in messages, see
+     * {@link I18nItem#I18nItem(I18nCatalogSnapshot,String)}.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItem1 (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        super (snapshot, key);
+      } // I18nItem1
+
     /**
      * The method to obtain a formatted message in a locale that is best
      * preferred for the current user.
@@ -66,11 +79,33 @@ public class I18nItem1<TArg1>
      */
     public String s (TArg1 arg1)
       {
-        MessageFormat messageFormat = this.obtainMessageFormat ();
-        return messageFormat.format (new Object [] { arg1 },
-                                     new StringBuffer (),
-                                     null)
-                            .toString ();
+        return this.format (new Object [] { arg1 });
       } // s
 
+    /**
+     * Similar to {@link #s(Object)}, but with the message escaped for HTML.
+     * Literal parts of the message are escaped once per locale and cached, so
+     * only arguments get escaped with every call.
+     * 
+     * @param arg1 the one-and-only message formatting argument
+     * @return a formatted user locale specific message, escaped for HTML
+     */
+    public String html (TArg1 arg1)
+      {
+        return this.format (new Object [] { arg1 }, Escaping.HTML);
+      } // html
+
+    /**
+     * Similar to {@link #s(Object)}, but with the message escaped for XML.
+     * Literal parts of the message are escaped once per locale and cached, so
+     * only arguments get escaped with every call.
+     * 
+     * @param arg1 the one-and-only message formatting argument
+     * @return a formatted user locale specific message, escaped for XML
+     */
+    public String xml (TArg1 arg1)
+      {
+        return this.format (new Object [] { arg1 }, Escaping.XML);
+      } // xml
+
   } // class I18nItem1
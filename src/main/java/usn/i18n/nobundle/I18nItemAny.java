@@ -29,15 +29,13 @@
 
 package usn.i18n.nobundle;
 
-import java.text.MessageFormat;
-
 /**
  * <p>A class that implements multi-locale resource in
  * {@link java.text.MessageFormat MessageFormat} style with arbitrary number of
  * arguments, to be used together with {@link I18nHandler} subclasses.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2015-01-17
+ * @version 2026-10-19
  * 
  * <p>Allowing an arbitrary number of arguments has a disadvantage that
  * compile-time argument type consistency checks are no more available. With
@@ -61,6 +59,21 @@ public class I18nItemAny
         super (data);
       } // I18nItemAny
 
+    /**
+     * The constructor for items declared without compiled-in messages, see
+     * {@link I18nItem#I18nItem(I18nCatalogSnapshot,String)}.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItemAny (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        super (snapshot, key);
+      } // I18nItemAny
+
     /**
      * The method to obtain a formatted message in a locale that is best
      * preferred for the current user.
@@ -70,9 +83,33 @@ public class I18nItemAny
      */
     public String s (Object... args)
       {
-        MessageFormat messageFormat = this.obtainMessageFormat ();
-        return messageFormat.format (args, new StringBuffer (), null)
-                 .toString ();
+        return this.format (args);
       } // s
 
+    /**
+     * Similar to {@link #s(Object[])}, but with the message escaped for HTML.
+     * Literal parts of the message are escaped once per locale and cached, so
+     * only arguments get escaped with every call.
+     * 
+     * @param args a varargs array of message formatting arguments
+     * @return a formatted user locale specific message, escaped for HTML
+     */
+    public String html (Object... args)
+      {
+        return this.format (args, Escaping.HTML);
+      } // html
+
+    /**
+     * Similar to {@link #s(Object[])}, but with the message escaped for XML.
+     * Literal parts of the message are escaped once per locale and cached, so
+     * only arguments get escaped with every call.
+     * 
+     * @param args a varargs array of message formatting arguments
+     * @return a formatted user locale specific message, escaped for XML
+     */
+    public String xml (Object... args)
+      {
+        return this.format (args, Escaping.XML);
+      } // xml
+
   } // class I18nItemAny
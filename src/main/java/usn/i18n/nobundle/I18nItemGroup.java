@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>A group of {@link I18nItem} instances that are rendered together, like
+ * labels of a form or column headers of a report, to be resolved for one user
+ * in one pass.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>A group is declared once, typically next to its items, and resolved for
+ * every rendering via {@link #resolve()}, {@link #resolve(LocalePreferences)}
+ * or {@link #resolveInContext(Object)}. User locale preferences are obtained
+ * only once per resolution, and the best locale is found only once for all
+ * members having the same locales available, the way
+ * {@link I18nHandler#findBestLocaleTag(I18nItem,LocalePreferences)} finds it
+ * unless overridden. The result is a {@link View}
+ * with messages of all members in a flat array, addressed by indexes of
+ * members in the group.</p>
+ * 
+ * <p>A simple usage example:</p>
+ * <pre>
+ * static final I18nItemGroup FORM =
+ *     new I18nItemGroup (NAME_LABEL, EMAIL_LABEL, SUBMIT_LABEL);
+ * ...
+ * I18nItemGroup.View form = FORM.resolveInContext (request);
+ * out.print (form.getMessage (0));
+ * </pre>
+ */
+public final class I18nItemGroup
+  {
+    /**
+     * Members of the group.
+     */
+    private final I18nItem [] items;
+
+    /**
+     * Messages of members of a group resolved for one user, index by index
+     * with members of the group. A view is a snapshot, so it stays consistent
+     * even if stores of members get replaced meanwhile.
+     */
+    public static final class View
+      {
+        /**
+         * Stores of members, as of resolution.
+         */
+        private final MessageStore [] stores;
+
+        /**
+         * Indexes of best locales in {@link #stores}.
+         */
+        private final int [] indexes;
+
+        /**
+         * Messages of members for best locales.
+         */
+        private final String [] messages;
+
+        /**
+         * The constructor to be used by {@link I18nItemGroup}.
+         * 
+         * @param stores stores of members
+         * @param indexes indexes of best locales in stores
+         */
+        private View (MessageStore [] stores, int [] indexes)
+          {
+            this.stores = stores;
+            this.indexes = indexes;
+            this.messages = new String [stores.length];
+            for (int i = 0; i < stores.length; i++)
+              {
+                this.messages [i] = stores [i].message (indexes [i]);
+              }
+          } // View
+
+        /**
+         * Get the number of members.
+         * 
+         * @return the number of members of the group
+         */
+        public int size ()
+          {
+            return this.messages.length;
+          } // size
+
+        /**
+         * Get the message of a member for its best locale, as is, i.e. with
+         * formatting argument placeholders, if any, left intact.
+         * 
+         * @param index the index of the member in the group
+         * @return the message
+         */
+        public String getMessage (int index)
+          {
+            return this.messages [index];
+          } // getMessage
+
+        /**
+         * Get messages of all members for their best locales, as is.
+         * 
+         * @return a copy of the array of messages, index by index with
+         *         members of the group
+         */
+        public String [] getMessages ()
+          {
+            return this.messages.clone ();
+          } // getMessages
+
+        /**
+         * Get the best locale of a member.
+         * 
+         * @param index the index of the member in the group
+         * @return the {@link Locale#toLanguageTag() locale language tag} of the
+         *         best locale
+         */
+        public String getLocaleTag (int index)
+          {
+            return this.stores [index].localeTags [this.indexes [index]];
+          } // getLocaleTag
+
+        /**
+         * Format the message of a member for its best locale with given
+         * arguments, the same way as {@code s(...)} methods of items do.
+         * 
+         * @param index the index of the member in the group
+         * @param arguments message formatting arguments
+         * @return the formatted message
+         * @throws IllegalArgumentException should the message be not a valid
+         *                                  pattern
+         */
+        public String format (int index, Object... arguments)
+            throws IllegalArgumentException
+          {
+            return this.stores [index].compiledMessage (this.indexes [index])
+                                      .format (arguments);
+          } // format
+
+      } // class View
+
+    /**
+     * The constructor.
+     * 
+     * @param items members of the group, in the order of their indexes
+     */
+    public I18nItemGroup (I18nItem... items)
+      {
+        this.items = items.clone ();
+      } // I18nItemGroup
+
+    /**
+     * Get the number of members.
+     * 
+     * @return the number of members of the group
+     */
+    public int size ()
+      {
+        return this.items.length;
+      } // size
+
+    /**
+     * Get a member.
+     * 
+     * @param index the index of the member in the group
+     * @return the member
+     */
+    public I18nItem get (int index)
+      {
+        return this.items [index];
+      } // get
+
+    /**
+     * Resolve the group for the current user, as determined by the
+     * {@link I18nHandler} in place.
+     * 
+     * @return a view of messages of members for their best locales
+     * @throws NoSuchElementException should a member happen to be empty
+     */
+    public View resolve ()
+        throws NoSuchElementException
+      {
+        I18nHandler handler = I18nHandler.getHandler ();
+        return this.resolve (handler, handler.getUserLocalePreferences ());
+      } // resolve
+
+    /**
+     * Resolve the group for the user represented by {@code contextData}, to
+     * be used with {@link I18nHandlerInContext} subclasses. Should the
+     * handler in place be of another kind, the context is ignored.
+     * 
+     * @param <TContext> the same class as {@code TContext} for
+     *                   {@link I18nHandlerInContext} subclass being used
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @return a view of messages of members for their best locales
+     * @throws NoSuchElementException should a member happen to be empty
+     */
+    @SuppressWarnings ("unchecked")
+    public <TContext> View resolveInContext (TContext contextData)
+        throws NoSuchElementException
+      {
+        I18nHandler handler = I18nHandler.getHandler ();
+        LocalePreferences preferences =
+            (handler instanceof I18nHandlerInContext) ?
+              ((I18nHandlerInContext<TContext>) handler)
+                .getUserLocalePreferences (contextData) :
+              handler.getUserLocalePreferences ();
+        return this.resolve (handler, preferences);
+      } // resolveInContext
+
+    /**
+     * Resolve the group for locale preferences negotiated beforehand.
+     * 
+     * @param preferences user locale preferences
+     * @return a view of messages of members for their best locales
+     * @throws NoSuchElementException should a member happen to be empty
+     */
+    public View resolve (LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        return this.resolve (I18nHandler.getHandler (), preferences);
+      } // resolve
+
+    /**
+     * Resolve the group for locale preferences with a handler.
+     * 
+     * @param handler the handler in place
+     * @param preferences user locale preferences
+     * @return a view of messages of members for their best locales
+     * @throws NoSuchElementException should a member happen to be empty
+     */
+    private View resolve (I18nHandler handler, LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        MessageStore [] stores = new MessageStore [this.items.length];
+        int [] indexes = new int [this.items.length];
+        boolean hook = handler.hasMatchingHook ();
+        LocaleSet lastLocaleSet = null;
+        int lastIndex = 0;
+        for (int i = 0; i < this.items.length; i++)
+          {
+            MessageStore store = this.items [i].store;
+            // members normally share a handful of locale sets, so the best
+            // locale is found once per run of members sharing one, unless
+            // the handler overrides a matching hook, to be asked per member
+            if (store.localeSet != lastLocaleSet || hook)
+              {
+                lastLocaleSet = store.localeSet;
+                lastIndex = handler.resolveLocaleIndex (this.items [i], store,
+                                                        preferences);
+              }
+            stores [i] = store;
+            indexes [i] = lastIndex;
+          }
+        return new View (stores, indexes);
+      } // resolve
+
+  } // class I18nItemGroup
@@ -41,7 +41,7 @@ import java.util.NoSuchElementException;
  * or subclassed by applications directly.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>See {@linkplain usn.i18n.nobundle package info} for a usage example.</p>
  * 
@@ -62,6 +62,21 @@ public class I18nItemInContext<TContext>
         super (data);
       } // I18nItemInContext
 
+    /**
+     * The constructor for items declared without compiled-in messages, see
+     * {@link I18nItem#I18nItem(I18nCatalogSnapshot,String)}.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItemInContext (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        super (snapshot, key);
+      } // I18nItemInContext
+
     /**
      * Find the best match, exact or approximate, among locales available for
      * this item, for current user. Tries to find exact match for user
@@ -108,6 +123,22 @@ public class I18nItemInContext<TContext>
         return locale.getLanguage ();
       } // getBestLanguage
 
+    /**
+     * Obtain negotiated locale preferences for the user represented by
+     * {@code contextData}.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @return negotiated locale preferences
+     */
+    LocalePreferences getUserLocalePreferences (TContext contextData)
+      {
+        @SuppressWarnings ("unchecked")   // explicit type cast
+        I18nHandlerInContext<TContext> handler =
+            (I18nHandlerInContext<TContext>) I18nHandler.getHandler ();
+        return handler.getUserLocalePreferences (contextData);
+      } // getUserLocalePreferences
+
     /**
      * A utility method to find both the best locale suitable for given user for
      * given {@code I18nItemInContext} instance, and the appropriate message,
@@ -119,9 +150,8 @@ public class I18nItemInContext<TContext>
      */
     protected LocalizedMessage getBestLocaleAndMessage (TContext contextData)
       {
-        String bestLocaleTag = this.getBestLocaleTag (contextData);
-        return new LocalizedMessage (bestLocaleTag,
-                                     this.messages.get (bestLocaleTag));
+        return this.getLocalizedMessage
+                 (this.getUserLocalePreferences (contextData));
       } // getBestLocaleAndMessage
 
     /**
@@ -142,4 +172,41 @@ public class I18nItemInContext<TContext>
         return new MessageFormat (pattern, locale);
       } // obtainMessageFormat
 
+    /**
+     * Format the message for a locale that is best preferred for the user with
+     * given arguments, to be used by subclasses that take message formatting
+     * arguments. The pattern is compiled only once per locale, and formatting
+     * avoids synchronized buffers whenever possible, with the output being
+     * identical to that of {@link MessageFormat}.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param arguments message formatting arguments
+     * @return a formatted user locale specific message
+     */
+    protected String format (TContext contextData, Object [] arguments)
+      {
+        return this.getCompiledMessage
+                 (this.getUserLocalePreferences (contextData))
+                   .format (arguments);
+      } // format
+
+    /**
+     * Similar to {@link #format(Object,Object[])}, but with the message
+     * escaped for markup, with only arguments escaped anew with every call.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param arguments message formatting arguments
+     * @param escaping the markup context to escape for
+     * @return a formatted user locale specific message, escaped
+     */
+    String format (TContext contextData, Object [] arguments,
+                   Escaping escaping)
+      {
+        return this.getCompiledMessage
+                 (this.getUserLocalePreferences (contextData))
+                   .format (arguments, escaping);
+      } // format
+
   } // class I18nItemInContext
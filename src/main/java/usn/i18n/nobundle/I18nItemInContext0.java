@@ -29,13 +29,16 @@
 
 package usn.i18n.nobundle;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * <p>A class that implements multi-locale resource without formatting
  * arguments, to be used together with {@link I18nHandlerInContext}
  * subclasses.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>See {@linkplain usn.i18n.nobundle package info} for a usage example.</p>
  * 
@@ -56,6 +59,21 @@ public class I18nItemInContext0<TContext>
         super (data);
       } // I18nItemInContext0
 
+    /**
+     * The constructor for items declared without compiled-in messages, see
+     * {@link I18nItem#I18nItem(I18nCatalogSnapshot,String)}.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItemInContext0 (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        super (snapshot, key);
+      } // I18nItemInContext0
+
     /**
      * The method to obtain a message in a locale that is best preferred for
      * the current user.
@@ -69,4 +87,48 @@ public class I18nItemInContext0<TContext>
         return this.getBestLocaleAndMessage (contextData).message;
       } // s
 
+    /**
+     * Similar to {@link #s(Object) s(TContext)}, but with the message escaped
+     * for HTML. The escaped message is cached per locale.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @return a user locale specific message, escaped for HTML
+     */
+    public String html (TContext contextData)
+      {
+        return this.getEscapedMessage
+                 (this.getUserLocalePreferences (contextData), Escaping.HTML);
+      } // html
+
+    /**
+     * Similar to {@link #s(Object) s(TContext)}, but with the message escaped
+     * for XML. The escaped message is cached per locale.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @return a user locale specific message, escaped for XML
+     */
+    public String xml (TContext contextData)
+      {
+        return this.getEscapedMessage
+                 (this.getUserLocalePreferences (contextData), Escaping.XML);
+      } // xml
+
+    /**
+     * Write a message in a locale that is best preferred for the current user
+     * to a stream as UTF-8 bytes, without decoding it to a string when kept
+     * as bytes, e.g. in an {@link I18nCatalogSnapshot}.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param output the stream to write to
+     * @throws IOException as thrown by the stream
+     */
+    public void writeTo (TContext contextData, OutputStream output)
+        throws IOException
+      {
+        this.writeMessage (this.getUserLocalePreferences (contextData), output);
+      } // writeTo
+
   } // class I18nItemInContext0
@@ -29,15 +29,13 @@
 
 package usn.i18n.nobundle;
 
-import java.text.MessageFormat;
-
 /**
  * <p>A class that implements multi-locale resource in
  * {@link java.text.MessageFormat MessageFormat} style with one argument, to be
  * used together with {@link I18nHandlerInContext} subclasses.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>See {@linkplain usn.i18n.nobundle package info} for a usage example.</p>
  * 
@@ -59,6 +57,21 @@ public class I18nItemInContext1<TContext, TArg1>
         super (data);
       } // I18nItemInContext1
 
+    /**
+     * The constructor for items declared without compiled-in messages, see
+     * {@link I18nItem#I18nItem(I18nCatalogSnapshot,String)}.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItemInContext1 (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        super (snapshot, key);
+      } // I18nItemInContext1
+
     /**
      * The method to obtain a formatted message in a locale that is best
      * preferred for the current user.
@@ -70,11 +83,37 @@ public class I18nItemInContext1<TContext, TArg1>
      */
     public String s (TContext contextData, TArg1 arg1)
       {
-        MessageFormat messageFormat = this.obtainMessageFormat (contextData);
-        return messageFormat.format (new Object [] { arg1 },
-                                     new StringBuffer (),
-                                     null)
-                            .toString ();
+        return this.format (contextData, new Object [] { arg1 });
       } // s
 
+    /**
+     * Similar to {@link #s(Object,Object)}, but with the message escaped for
+     * HTML. Literal parts of the message are escaped once per locale and
+     * cached, so only arguments get escaped with every call.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param arg1 the one-and-only message formatting argument
+     * @return a formatted user locale specific message, escaped for HTML
+     */
+    public String html (TContext contextData, TArg1 arg1)
+      {
+        return this.format (contextData, new Object [] { arg1 }, Escaping.HTML);
+      } // html
+
+    /**
+     * Similar to {@link #s(Object,Object)}, but with the message escaped for
+     * XML. Literal parts of the message are escaped once per locale and cached,
+     * so only arguments get escaped with every call.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param arg1 the one-and-only message formatting argument
+     * @return a formatted user locale specific message, escaped for XML
+     */
+    public String xml (TContext contextData, TArg1 arg1)
+      {
+        return this.format (contextData, new Object [] { arg1 }, Escaping.XML);
+      } // xml
+
   } // class I18nItemInContext1
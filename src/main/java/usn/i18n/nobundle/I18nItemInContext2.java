@@ -29,15 +29,13 @@
 
 package usn.i18n.nobundle;
 
-import java.text.MessageFormat;
-
 /**
  * <p>A class that implements multi-locale resource in
  * {@link java.text.MessageFormat MessageFormat} style with two arguments, to be
  * used together with {@link I18nHandlerInContext} subclasses.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>See {@linkplain usn.i18n.nobundle package info} for a usage example.</p>
  * 
@@ -60,6 +58,21 @@ public class I18nItemInContext2<TContext, TArg1, TArg2>
         super (data);
       } // I18nItemInContext2
 
+    /**
+     * The constructor for items declared without compiled-in messages, see
+     * {@link I18nItem#I18nItem(I18nCatalogSnapshot,String)}.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItemInContext2 (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        super (snapshot, key);
+      } // I18nItemInContext2
+
     /**
      * The method to obtain a formatted message in a locale that is best
      * preferred for the current user.
@@ -72,11 +85,41 @@ public class I18nItemInContext2<TContext, TArg1, TArg2>
      */
     public String s (TContext contextData, TArg1 arg1, TArg2 arg2)
       {
-        MessageFormat messageFormat = this.obtainMessageFormat (contextData);
-        return messageFormat.format (new Object [] { arg1, arg2 },
-                                     new StringBuffer (),
-                                     null)
-                            .toString ();
+        return this.format (contextData, new Object [] { arg1, arg2 });
       } // s
 
+    /**
+     * Similar to {@link #s(Object,Object,Object)}, but with the message escaped
+     * for HTML. Literal parts of the message are escaped once per locale and
+     * cached, so only arguments get escaped with every call.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param arg1 the first message formatting argument
+     * @param arg2 the second message formatting argument
+     * @return a formatted user locale specific message, escaped for HTML
+     */
+    public String html (TContext contextData, TArg1 arg1, TArg2 arg2)
+      {
+        return this.format (contextData, new Object [] { arg1, arg2 },
+                            Escaping.HTML);
+      } // html
+
+    /**
+     * Similar to {@link #s(Object,Object,Object)}, but with the message escaped
+     * for XML. Literal parts of the message are escaped once per locale and
+     * cached, so only arguments get escaped with every call.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param arg1 the first message formatting argument
+     * @param arg2 the second message formatting argument
+     * @return a formatted user locale specific message, escaped for XML
+     */
+    public String xml (TContext contextData, TArg1 arg1, TArg2 arg2)
+      {
+        return this.format (contextData, new Object [] { arg1, arg2 },
+                            Escaping.XML);
+      } // xml
+
   } // class I18nItemInContext2
@@ -29,8 +29,6 @@
 
 package usn.i18n.nobundle;
 
-import java.text.MessageFormat;
-
 /**
  * <p>A class that implements multi-locale resource in
  * {@link java.text.MessageFormat MessageFormat} style with arbitrary number of
@@ -38,7 +36,7 @@ import java.text.MessageFormat;
  * subclasses.</p>
  * 
  * @author Sergey Ushakov, s-n-ushakov@yandex.ru
- * @version 2013-06-18
+ * @version 2026-10-19
  * 
  * <p>Allowing an arbitrary number of arguments has a disadvantage that
  * compile-time argument type consistency is not available. With this in mind
@@ -65,6 +63,21 @@ public class I18nItemInContextAny<TContext>
         super (data);
       } // I18nItemInContextAny
 
+    /**
+     * The constructor for items declared without compiled-in messages, see
+     * {@link I18nItem#I18nItem(I18nCatalogSnapshot,String)}.
+     * 
+     * @param snapshot the snapshot holding the messages
+     * @param key the stable key of the item in the snapshot
+     * @throws IllegalArgumentException should the snapshot have no messages
+     *                                  for the key
+     */
+    public I18nItemInContextAny (I18nCatalogSnapshot snapshot, String key)
+        throws IllegalArgumentException
+      {
+        super (snapshot, key);
+      } // I18nItemInContextAny
+
     /**
      * The method to obtain a formatted message in a locale that is best
      * preferred for the current user.
@@ -76,9 +89,37 @@ public class I18nItemInContextAny<TContext>
      */
     public String s (TContext contextData, Object... args)
       {
-        MessageFormat messageFormat = this.obtainMessageFormat (contextData);
-        return messageFormat.format (args, new StringBuffer (), null)
-                 .toString ();
+        return this.format (contextData, args);
       } // s
 
+    /**
+     * Similar to {@link #s(Object,Object[])}, but with the message escaped for
+     * HTML. Literal parts of the message are escaped once per locale and
+     * cached, so only arguments get escaped with every call.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param args a varargs array of message formatting arguments
+     * @return a formatted user locale specific message, escaped for HTML
+     */
+    public String html (TContext contextData, Object... args)
+      {
+        return this.format (contextData, args, Escaping.HTML);
+      } // html
+
+    /**
+     * Similar to {@link #s(Object,Object[])}, but with the message escaped for
+     * XML. Literal parts of the message are escaped once per locale and cached,
+     * so only arguments get escaped with every call.
+     * 
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @param args a varargs array of message formatting arguments
+     * @return a formatted user locale specific message, escaped for XML
+     */
+    public String xml (TContext contextData, Object... args)
+      {
+        return this.format (contextData, args, Escaping.XML);
+      } // xml
+
   } // class I18nItemInContextAny
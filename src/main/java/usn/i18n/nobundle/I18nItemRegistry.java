@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A registry of all {@link I18nItem} instances constructed in the JVM,
+ * assigning every item a dense integer ID and, once known, a stable name.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Every item joins the registry upon construction and gets an ID, starting
+ * with zero, available via {@link I18nItem#getId()}. Items are held weakly, so
+ * items constructed dynamically do not leak, and IDs of items having been
+ * garbage collected are given to items constructed later, so IDs stay dense.
+ * Subsystems may keep per-item data in flat arrays indexed by IDs, sized by
+ * {@link #size()}, instead of identity hash maps, provided they check that an
+ * ID still denotes the same item before reusing such data.</p>
+ * 
+ * <p>Stable names are composed of class names and field names, like
+ * {@code com.example.Messages.GREETING}, and are assigned to items held by
+ * static fields of a class once the class is looked at via
+ * {@link #name(Class[])}, or by any facility taking classes declaring items,
+ * like
+ * {@link I18nCatalogOverlay#bind(Class[])}.</p>
+ * 
+ * <p>The {@link #getGeneration() generation} of the registry advances
+ * whenever an item is registered or released, or has its messages replaced,
+ * like by an {@link I18nCatalogOverlay}, so that subsystems deriving data
+ * from items may tell whether the data is still up to date with a single
+ * read.</p>
+ * 
+ * <p>Registration and lookups take no global lock: entries are kept in
+ * fixed-size segments that never move, and only adding a segment, once per
+ * {@value #SEGMENT_SIZE} IDs, is serialized.</p>
+ */
+public final class I18nItemRegistry
+  {
+    /**
+     * The logger.
+     */
+    private static final Logger logger =
+        LoggerFactory.getLogger (I18nItemRegistry.class);
+
+    /**
+     * The number of entries per segment.
+     */
+    private static final int SEGMENT_SIZE = 256;
+
+    /**
+     * A registry entry, holding an item weakly along with its ID and name.
+     */
+    private static final class Entry
+        extends WeakReference<I18nItem>
+      {
+        /**
+         * The ID of the item.
+         */
+        final int id;
+
+        /**
+         * The name of the item, or {@code null} if it has no name yet.
+         */
+        volatile String name = null;
+
+        /**
+         * The constructor.
+         * 
+         * @param item the item
+         * @param id the ID of the item
+         */
+        Entry (I18nItem item, int id)
+          {
+            super (item, queue);
+            this.id = id;
+          } // Entry
+
+      } // class Entry
+
+    /**
+     * The queue entries of items having been garbage collected arrive at.
+     */
+    private static final ReferenceQueue<I18nItem> queue =
+        new ReferenceQueue<I18nItem> ();
+
+    /**
+     * Segments of registry entries, indexed by IDs divided by
+     * {@link #SEGMENT_SIZE}. Replaced by a longer copy when a segment is
+     * added; segments themselves are never replaced.
+     */
+    private static volatile AtomicReferenceArray<Entry> [] segments =
+        newSegments (0);
+
+    /**
+     * The lock serializing addition of segments.
+     */
+    private static final Object segmentLock = new Object ();
+
+    /**
+     * IDs of items having been garbage collected, to be given to new items.
+     */
+    private static final ConcurrentLinkedQueue<Integer> freeIds =
+        new ConcurrentLinkedQueue<Integer> ();
+
+    /**
+     * The number of IDs assigned so far.
+     */
+    private static final AtomicInteger nextId = new AtomicInteger ();
+
+    /**
+     * The generation of the registry.
+     */
+    private static final AtomicLong generation = new AtomicLong ();
+
+    /**
+     * Entries of named items, indexed by names.
+     */
+    private static final ConcurrentHashMap<String, Entry> ids =
+        new ConcurrentHashMap<String, Entry> ();
+
+    /**
+     * Not to be instantiated.
+     */
+    private I18nItemRegistry ()
+      {
+      } // I18nItemRegistry
+
+    /**
+     * Reserve an ID for an item being constructed. The item is not known to
+     * the registry until it is {@link #publish(I18nItem) published}.
+     * 
+     * @return the ID to be assigned to the item
+     */
+    static int reserve ()
+      {
+        expungeCollected ();
+        Integer freeId = freeIds.poll ();
+        return (freeId != null) ? freeId : nextId.getAndIncrement ();
+      } // reserve
+
+    /**
+     * Register an item under the ID {@link #reserve() reserved} for it, to be
+     * called once the item is completely constructed.
+     * 
+     * @param item the item
+     */
+    static void publish (I18nItem item)
+      {
+        int id = item.id;
+        segmentFor (id, true).set (id % SEGMENT_SIZE, new Entry (item, id));
+        generation.incrementAndGet ();
+      } // publish
+
+    /**
+     * Release entries of items having been garbage collected, making their
+     * IDs available for new items.
+     */
+    private static void expungeCollected ()
+      {
+        Entry entry;
+        while ((entry = (Entry) queue.poll ()) != null)
+          {
+            segmentFor (entry.id, false).compareAndSet (entry.id % SEGMENT_SIZE,
+                                                        entry, null);
+            String name = entry.name;
+            if (name != null)
+              {
+                ids.remove (name, entry);
+              }
+            freeIds.add (entry.id);
+            generation.incrementAndGet ();
+          }
+      } // expungeCollected
+
+    /**
+     * Get the generation of the registry, advancing whenever an item is
+     * registered or released, or has its messages replaced.
+     * 
+     * @return the current generation
+     */
+    public static long getGeneration ()
+      {
+        return generation.get ();
+      } // getGeneration
+
+    /**
+     * Advance the generation of the registry, to be called after the store
+     * of an item has been replaced.
+     */
+    static void advanceGeneration ()
+      {
+        generation.incrementAndGet ();
+      } // advanceGeneration
+
+    /**
+     * Get the segment for an ID.
+     * 
+     * @param id the ID
+     * @param create {@code true} to add the segment if missing
+     * @return the segment, or {@code null} if missing and not to be added
+     */
+    private static AtomicReferenceArray<Entry> segmentFor (int id,
+                                                           boolean create)
+      {
+        int index = id / SEGMENT_SIZE;
+        AtomicReferenceArray<Entry> [] current = segments;
+        if (index < current.length)
+          {
+            return current [index];
+          }
+        if (!create)
+          {
+            return null;
+          }
+        synchronized (segmentLock)
+          {
+            current = segments;
+            if (index >= current.length)
+              {
+                AtomicReferenceArray<Entry> [] grown =
+                    newSegments (index + 1);
+                System.arraycopy (current, 0, grown, 0, current.length);
+                for (int i = current.length; i < grown.length; i++)
+                  {
+                    grown [i] = new AtomicReferenceArray<Entry> (SEGMENT_SIZE);
+                  }
+                segments = grown;
+                current = grown;
+              }
+            return current [index];
+          }
+      } // segmentFor
+
+    /**
+     * Create an empty array of segments. Generic arrays cannot be created
+     * directly, hence the unchecked cast of an array of wildcard segments.
+     * 
+     * @param length the length of the array
+     * @return the array
+     */
+    @SuppressWarnings ("unchecked")
+    private static AtomicReferenceArray<Entry> [] newSegments (int length)
+      {
+        return (AtomicReferenceArray<Entry> [])
+                 new AtomicReferenceArray<?> [length];
+      } // newSegments
+
+    /**
+     * Get the entry for an ID.
+     * 
+     * @param id the ID
+     * @return the entry, or {@code null} if none
+     * @throws IndexOutOfBoundsException should the ID be never assigned
+     */
+    private static Entry entryFor (int id)
+        throws IndexOutOfBoundsException
+      {
+        if (id < 0 || id >= nextId.get ())
+          {
+            throw new IndexOutOfBoundsException ("No i18n item with ID " + id);
+          }
+        AtomicReferenceArray<Entry> segment = segmentFor (id, false);
+        return (segment != null) ? segment.get (id % SEGMENT_SIZE) : null;
+      } // entryFor
+
+    /**
+     * Get the number of IDs assigned so far, to be used as the size of flat
+     * arrays indexed by IDs.
+     * 
+     * @return the number of IDs assigned
+     */
+    public static int size ()
+      {
+        return nextId.get ();
+      } // size
+
+    /**
+     * Get an item by its ID.
+     * 
+     * @param id the ID of the item
+     * @return the item, or {@code null} if it has been garbage collected
+     * @throws IndexOutOfBoundsException should the ID be never assigned
+     */
+    public static I18nItem get (int id)
+        throws IndexOutOfBoundsException
+      {
+        Entry entry = entryFor (id);
+        return (entry != null) ? entry.get () : null;
+      } // get
+
+    /**
+     * Get all registered items at once, for bulk iteration.
+     * 
+     * @return a new array of items indexed by IDs, with {@code null} for
+     *         items having been garbage collected
+     */
+    public static I18nItem [] getItems ()
+      {
+        int size = nextId.get ();
+        I18nItem [] result = new I18nItem [size];
+        AtomicReferenceArray<Entry> [] current = segments;
+        for (int i = 0; i < size && i / SEGMENT_SIZE < current.length; i++)
+          {
+            Entry entry = current [i / SEGMENT_SIZE].get (i % SEGMENT_SIZE);
+            result [i] = (entry != null) ? entry.get () : null;
+          }
+        return result;
+      } // getItems
+
+    /**
+     * Get the stable name of an item.
+     * 
+     * @param id the ID of the item
+     * @return the name, or {@code null} if the item has no name yet
+     * @throws IndexOutOfBoundsException should the ID be never assigned
+     */
+    public static String getName (int id)
+        throws IndexOutOfBoundsException
+      {
+        Entry entry = entryFor (id);
+        return (entry != null) ? entry.name : null;
+      } // getName
+
+    /**
+     * Get the ID of an item by its stable name.
+     * 
+     * @param name the name of the item
+     * @return the ID, or {@code -1} if no item has the name
+     */
+    public static int getId (String name)
+      {
+        Entry entry = ids.get (name);
+        return (entry != null && entry.get () != null) ? entry.id : -1;
+      } // getId
+
+    /**
+     * Assign a stable name to an item, unless it has one already.
+     * 
+     * @param item the item
+     * @param name the name
+     */
+    static void setName (I18nItem item, String name)
+      {
+        Entry entry = entryFor (item.id);
+        if (entry == null || entry.get () != item)
+          {
+            return;
+          }
+        synchronized (entry)
+          {
+            if (entry.name == null)
+              {
+                entry.name = name;
+                ids.put (name, entry);
+              }
+          }
+      } // setName
+
+    /**
+     * Assign stable names to items held by static fields of given classes.
+     * 
+     * @param holders classes declaring static {@link I18nItem} fields
+     * @return the number of items found
+     */
+    public static int name (Class<?>... holders)
+      {
+        int count = 0;
+        for (Class<?> holder : holders)
+          {
+            count += collectItems (holder).size ();
+          }
+        return count;
+      } // name
+
+    /**
+     * Collect items held by static fields of a class, with keys composed of
+     * the class name and field names, assigning them stable names. Fields that
+     * cannot be read, like non-public fields in a module not open to this
+     * library, are skipped with a warning.
+     * 
+     * @param holder a class declaring static {@link I18nItem} fields
+     * @return items found, indexed by their names, in declaration order
+     */
+    static Map<String, I18nItem> collectItems (Class<?> holder)
+      {
+        LinkedHashMap<String, I18nItem> items =
+            new LinkedHashMap<String, I18nItem> ();
+        for (Field field : holder.getDeclaredFields ())
+          {
+            if (!Modifier.isStatic (field.getModifiers ()) ||
+                !I18nItem.class.isAssignableFrom (field.getType ()))
+              {
+                continue;
+              }
+            try
+              {
+                field.setAccessible (true);
+              }
+            catch (RuntimeException e)
+              {
+                // a SecurityException, or an InaccessibleObjectException on
+                // Java 9+ for a package not open to this library; public fields
+                // may still be readable
+              }
+            try
+              {
+                I18nItem item = (I18nItem) field.get (null);
+                if (item != null)
+                  {
+                    String name = holder.getName () + "." + field.getName ();
+                    setName (item, name);
+                    items.put (name, item);
+                  }
+              }
+            catch (IllegalAccessException e)
+              {
+                logger.warn ("Skipping inaccessible i18n item field " +
+                             holder.getName () + "." + field.getName (), e);
+              }
+          }
+        return items;
+      } // collectItems
+
+    /**
+     * Get all registered items having stable names.
+     * 
+     * @return a new list of named items, in ID order
+     */
+    public static List<I18nItem> getNamedItems ()
+      {
+        List<I18nItem> result = new ArrayList<I18nItem> ();
+        int size = nextId.get ();
+        AtomicReferenceArray<Entry> [] current = segments;
+        for (int i = 0; i < size && i / SEGMENT_SIZE < current.length; i++)
+          {
+            Entry entry = current [i / SEGMENT_SIZE].get (i % SEGMENT_SIZE);
+            I18nItem item = (entry != null) ? entry.get () : null;
+            if (item != null && entry.name != null)
+              {
+                result.add (item);
+              }
+          }
+        return result;
+      } // getNamedItems
+
+  } // class I18nItemRegistry
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A set of {@link I18nItem} instances to be listed in the collation order
+ * of their messages, like names of countries or categories in a drop-down
+ * list.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>The set is sorted for a user by messages of its items for their best
+ * locales, with a {@link Collator} for the best locale of the first item;
+ * items of a set are expected to have the same locales available. Both
+ * {@link CollationKey}s of items and sorted orders are cached per locale, so
+ * sorting the same set for the same locale again is a cache hit, and only
+ * items whose messages have been replaced meanwhile get their keys computed
+ * anew.</p>
+ * 
+ * <p>A simple usage example:</p>
+ * <pre>
+ * static final I18nItemSorter COUNTRIES =
+ *     new I18nItemSorter (AUSTRIA, BELGIUM, CROATIA, DENMARK);
+ * ...
+ * for (I18nItem country : COUNTRIES.sortInContext (request))
+ *   ...
+ * </pre>
+ */
+public final class I18nItemSorter
+  {
+    /**
+     * The maximum number of sorted orders cached, to bound memory taken by
+     * sets whose items resolve to many locale combinations.
+     */
+    static final int MAX_CACHED_ORDERINGS = 256;
+
+    /**
+     * Items of the set.
+     */
+    private final I18nItem [] items;
+
+    /**
+     * Sorted orders, by locales resolved.
+     */
+    private final ConcurrentHashMap<String, Ordering> orderings =
+        new ConcurrentHashMap<String, Ordering> ();
+
+    /**
+     * A sorted order of items for a combination of locales resolved, with
+     * the data it has been computed from.
+     */
+    private static final class Ordering
+      {
+        /**
+         * Stores of items, as of sorting.
+         */
+        final MessageStore [] stores;
+
+        /**
+         * Collation keys of messages of items, index by index with items.
+         */
+        final CollationKey [] keys;
+
+        /**
+         * Items in the collation order.
+         */
+        final List<I18nItem> sorted;
+
+        /**
+         * The constructor.
+         * 
+         * @param stores stores of items
+         * @param keys collation keys of messages of items
+         * @param sorted items in the collation order
+         */
+        Ordering (MessageStore [] stores, CollationKey [] keys,
+                  List<I18nItem> sorted)
+          {
+            this.stores = stores;
+            this.keys = keys;
+            this.sorted = sorted;
+          } // Ordering
+      } // class Ordering
+
+    /**
+     * The constructor.
+     * 
+     * @param items items of the set
+     */
+    public I18nItemSorter (I18nItem... items)
+      {
+        this.items = items.clone ();
+      } // I18nItemSorter
+
+    /**
+     * Get the number of items.
+     * 
+     * @return the number of items in the set
+     */
+    public int size ()
+      {
+        return this.items.length;
+      } // size
+
+    /**
+     * Sort the set for the current user, as determined by the
+     * {@link I18nHandler} in place.
+     * 
+     * @return an unmodifiable list of items in the collation order
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    public List<I18nItem> sort ()
+        throws NoSuchElementException
+      {
+        I18nHandler handler = I18nHandler.getHandler ();
+        return this.sort (handler, handler.getUserLocalePreferences ());
+      } // sort
+
+    /**
+     * Sort the set for the user represented by {@code contextData}, to be
+     * used with {@link I18nHandlerInContext} subclasses. Should the handler
+     * in place be of another kind, the context is ignored.
+     * 
+     * @param <TContext> the same class as {@code TContext} for
+     *                   {@link I18nHandlerInContext} subclass being used
+     * @param contextData an instance of context-specific data to retrieve user
+     *                    preferences from
+     * @return an unmodifiable list of items in the collation order
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    @SuppressWarnings ("unchecked")
+    public <TContext> List<I18nItem> sortInContext (TContext contextData)
+        throws NoSuchElementException
+      {
+        I18nHandler handler = I18nHandler.getHandler ();
+        LocalePreferences preferences =
+            (handler instanceof I18nHandlerInContext) ?
+              ((I18nHandlerInContext<TContext>) handler)
+                .getUserLocalePreferences (contextData) :
+              handler.getUserLocalePreferences ();
+        return this.sort (handler, preferences);
+      } // sortInContext
+
+    /**
+     * Sort the set for locale preferences negotiated beforehand.
+     * 
+     * @param preferences user locale preferences
+     * @return an unmodifiable list of items in the collation order
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    public List<I18nItem> sort (LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        return this.sort (I18nHandler.getHandler (), preferences);
+      } // sort
+
+    /**
+     * Sort the set for locale preferences with a handler, reusing the
+     * cached order whenever stores of items have not been replaced.
+     * 
+     * @param handler the handler in place
+     * @param preferences user locale preferences
+     * @return an unmodifiable list of items in the collation order
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    private List<I18nItem> sort (I18nHandler handler,
+                                 LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        if (this.items.length == 0)
+          {
+            return Collections.<I18nItem>emptyList ();
+          }
+        MessageStore [] stores = new MessageStore [this.items.length];
+        int [] indexes = new int [this.items.length];
+        // the key names locales resolved for runs of items sharing a locale
+        // set, which is normally just one locale
+        StringBuilder key = new StringBuilder ();
+        // handlers overriding a matching hook resolve item by item
+        boolean hook = handler.hasMatchingHook ();
+        LocaleSet lastLocaleSet = null;
+        int lastIndex = 0;
+        for (int i = 0; i < this.items.length; i++)
+          {
+            MessageStore store = this.items [i].store;
+            if (store.localeSet != lastLocaleSet || hook)
+              {
+                lastLocaleSet = store.localeSet;
+                lastIndex = handler.resolveLocaleIndex (this.items [i], store,
+                                                        preferences);
+                if (key.length () > 0)
+                  {
+                    key.append (',');
+                  }
+                key.append (lastLocaleSet.localeTags [lastIndex]);
+              }
+            stores [i] = store;
+            indexes [i] = lastIndex;
+          }
+        String orderingKey = key.toString ();
+        Ordering ordering = this.orderings.get (orderingKey);
+        if (ordering != null && Arrays.equals (ordering.stores, stores))
+          {
+            return ordering.sorted;
+          }
+        ordering = this.order (stores, indexes, ordering);
+        if (this.orderings.size () < MAX_CACHED_ORDERINGS ||
+            this.orderings.containsKey (orderingKey))
+          {
+            this.orderings.put (orderingKey, ordering);
+          }
+        return ordering.sorted;
+      } // sort
+
+    /**
+     * Compute a sorted order of items.
+     * 
+     * @param stores stores of items
+     * @param indexes indexes of best locales in stores
+     * @param previous the previous order for the same locales, whose
+     *                 collation keys are reused for items with stores not
+     *                 replaced, or {@code null} if none
+     * @return the new order
+     */
+    private Ordering order (MessageStore [] stores, int [] indexes,
+                            Ordering previous)
+      {
+        Locale locale = I18nHandler.localeForLanguageTag
+                          (stores [0].localeTags [indexes [0]]);
+        Collator collator = Collator.getInstance (locale);
+        final CollationKey [] keys = new CollationKey [stores.length];
+        Integer [] order = new Integer [stores.length];
+        for (int i = 0; i < stores.length; i++)
+          {
+            keys [i] = (previous != null && previous.stores [i] == stores [i]) ?
+                previous.keys [i] :
+                collator.getCollationKey (stores [i].message (indexes [i]));
+            order [i] = i;
+          }
+        // the sort is stable, so items with equal messages keep their order
+        Arrays.sort (order, new Comparator<Integer> ()
+          {
+            @Override
+            public int compare (Integer i1, Integer i2)
+              {
+                return keys [i1].compareTo (keys [i2]);
+              } // compare
+          });
+        I18nItem [] sorted = new I18nItem [order.length];
+        for (int i = 0; i < order.length; i++)
+          {
+            sorted [i] = this.items [order [i]];
+          }
+        return new Ordering (stores, keys,
+                             Collections.unmodifiableList
+                               (Arrays.asList (sorted)));
+      } // order
+
+  } // class I18nItemSorter
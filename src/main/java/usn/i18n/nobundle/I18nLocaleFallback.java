@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Fallback chains of locales, as used for locale matching by
+ * {@link I18nHandler}, following BCP 47 truncation with script-aware likely
+ * subtags and a configurable table of parent locales.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>The fallback chain of a locale starts with the locale itself, followed by
+ * its form with the likely script added for languages written in several
+ * scripts, like {@code zh-Hant-HK} for {@code zh-HK}, and then by its
+ * ancestors, each being either the parent configured explicitly, like
+ * {@code es-419} for {@code es-MX}, or the locale with its last subtag
+ * truncated, like {@code zh-Hant} for {@code zh-Hant-HK}. Truncation never
+ * changes the script, so {@code zh-Hant} is not followed by {@code zh}, which
+ * stands for Simplified Chinese. A locale having no region is finally followed
+ * by its form with the likely region added, like {@code pt-BR} for
+ * {@code pt}. Examples:</p>
+ * <ul>
+ *   <li>{@code zh-HK}: {@code zh-HK, zh-Hant-HK, zh-Hant};</li>
+ *   <li>{@code en-AU}: {@code en-AU, en-001, en};</li>
+ *   <li>{@code pt-AO}: {@code pt-AO, pt-PT, pt};</li>
+ *   <li>{@code pt}: {@code pt, pt-BR}.</li>
+ * </ul>
+ * 
+ * <p>Should no locale of the chain be available, a locale of the same
+ * language and script is accepted, again with scripts of languages written in
+ * several scripts being taken into account, so that {@code zh-TW} never falls
+ * back to {@code zh-CN}.</p>
+ * 
+ * <p>Chains are computed once per {@link LocalePreferences} instance, and
+ * changes of parent locales take effect for preferences negotiated
+ * afterwards.</p>
+ */
+public final class I18nLocaleFallback
+  {
+    /**
+     * Parent locales configured explicitly, indexed by locale tags.
+     */
+    private static final ConcurrentHashMap<String, String> parents =
+        new ConcurrentHashMap<String, String> ();
+
+    /**
+     * Likely scripts of languages written in several scripts, indexed by
+     * languages and by languages with regions.
+     */
+    private static final Map<String, String> likelyScripts =
+        new HashMap<String, String> ();
+
+    /**
+     * Likely regions, indexed by languages or by languages with scripts.
+     */
+    private static final Map<String, String> likelyRegions =
+        new HashMap<String, String> ();
+
+    static
+      {
+        for (String region : new String []
+               {"150", "AG", "AI", "AU", "BB", "BE", "BM", "BS", "BW", "BZ",
+                "CA", "CK", "CM", "CY", "DM", "ER", "FJ", "FK", "GB", "GD",
+                "GG", "GH", "GI", "GM", "GY", "HK", "IE", "IL", "IM", "IN",
+                "JE", "JM", "KE", "KI", "KN", "KY", "LC", "LR", "LS", "MG",
+                "MO", "MS", "MT", "MU", "MW", "MY", "NA", "NF", "NG", "NR",
+                "NU", "NZ", "PG", "PK", "PN", "RW", "SB", "SC", "SD", "SG",
+                "SH", "SL", "SS", "SZ", "TC", "TK", "TO", "TT", "TV", "TZ",
+                "UG", "VC", "VG", "VU", "WS", "ZA", "ZM", "ZW"})
+          {
+            parents.put ("en-" + region, "en-001");
+          }
+        for (String region : new String []
+               {"AR", "BO", "BR", "BZ", "CL", "CO", "CR", "CU", "DO", "EC",
+                "GT", "HN", "MX", "NI", "PA", "PE", "PR", "PY", "SV", "US",
+                "UY", "VE"})
+          {
+            parents.put ("es-" + region, "es-419");
+          }
+        for (String region : new String []
+               {"AO", "CH", "CV", "GQ", "GW", "LU", "MO", "MZ", "ST", "TL"})
+          {
+            parents.put ("pt-" + region, "pt-PT");
+          }
+        parents.put ("zh-Hant-MO", "zh-Hant-HK");
+
+        likelyScripts.put ("zh", "Hans");
+        likelyScripts.put ("zh-TW", "Hant");
+        likelyScripts.put ("zh-HK", "Hant");
+        likelyScripts.put ("zh-MO", "Hant");
+        likelyScripts.put ("sr", "Cyrl");
+        likelyScripts.put ("sr-ME", "Latn");
+        likelyScripts.put ("uz", "Latn");
+        likelyScripts.put ("uz-AF", "Arab");
+        likelyScripts.put ("az", "Latn");
+        likelyScripts.put ("az-IR", "Arab");
+        likelyScripts.put ("pa", "Guru");
+        likelyScripts.put ("pa-PK", "Arab");
+        likelyScripts.put ("mn", "Cyrl");
+        likelyScripts.put ("mn-CN", "Mong");
+
+        String [] regions =
+          {"ar", "EG", "bg", "BG", "cs", "CZ", "da", "DK", "de", "DE",
+           "el", "GR", "en", "US", "es", "ES", "et", "EE", "fi", "FI",
+           "fr", "FR", "he", "IL", "hr", "HR", "hu", "HU", "it", "IT",
+           "ja", "JP", "ko", "KR", "lt", "LT", "lv", "LV", "nb", "NO",
+           "nl", "NL", "pl", "PL", "pt", "BR", "ro", "RO", "ru", "RU",
+           "sk", "SK", "sl", "SI", "sv", "SE", "tr", "TR", "uk", "UA",
+           "zh-Hans", "CN", "zh-Hant", "TW", "sr-Cyrl", "RS",
+           "sr-Latn", "RS"};
+        for (int i = 0; i < regions.length; i += 2)
+          {
+            likelyRegions.put (regions [i], regions [i + 1]);
+          }
+      }
+
+    /**
+     * Not to be instantiated.
+     */
+    private I18nLocaleFallback ()
+      {
+      } // I18nLocaleFallback
+
+    /**
+     * Configure the parent of a locale, replacing the default one, if any.
+     * Takes effect for preferences negotiated afterwards.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     * @param parentTag the locale language tag of the parent
+     */
+    public static void setParent (String localeTag, String parentTag)
+      {
+        parents.put (localeTag, parentTag);
+        I18nHandler.invalidateCaches ();
+      } // setParent
+
+    /**
+     * Remove the parent configured for a locale, so that it falls back by
+     * truncation.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     */
+    public static void removeParent (String localeTag)
+      {
+        parents.remove (localeTag);
+        I18nHandler.invalidateCaches ();
+      } // removeParent
+
+    /**
+     * Check if a language is written in several scripts, so that its script
+     * is to be taken into account for matching.
+     * 
+     * @param language the language
+     * @return {@code true} if the script is significant
+     */
+    static boolean isScriptSensitive (String language)
+      {
+        return likelyScripts.containsKey (language);
+      } // isScriptSensitive
+
+    /**
+     * Get the effective script of a locale, either explicit or likely.
+     * 
+     * @param locale the locale
+     * @return the script, or an empty string if insignificant
+     */
+    private static String effectiveScript (Locale locale)
+      {
+        String language = locale.getLanguage ();
+        if (!isScriptSensitive (language))
+          {
+            return "";
+          }
+        if (!locale.getScript ().isEmpty ())
+          {
+            return locale.getScript ();
+          }
+        String script =
+            likelyScripts.get (language + "-" + locale.getCountry ());
+        return (script != null) ? script : likelyScripts.get (language);
+      } // effectiveScript
+
+    /**
+     * Get the key to match a locale by language, with its script appended for
+     * languages written in several scripts, like {@code zh-Hant} for
+     * {@code zh-TW}.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     * @return the language key
+     */
+    static String languageKey (String localeTag)
+      {
+        Locale locale = I18nHandler.lookupLocale (localeTag);
+        String script = effectiveScript (locale);
+        return script.isEmpty () ? locale.getLanguage () :
+                                   locale.getLanguage () + "-" + script;
+      } // languageKey
+
+    /**
+     * Get the parent of a locale, either configured or by truncation.
+     * 
+     * @param locale the locale
+     * @return the parent, or {@code null} for a bare language or should
+     *         truncation change the script
+     */
+    private static Locale parentOf (Locale locale)
+      {
+        String parentTag = parents.get (locale.toLanguageTag ());
+        if (parentTag != null)
+          {
+            return I18nHandler.lookupLocale (parentTag);
+          }
+        Locale.Builder builder = new Locale.Builder ().setLocale (locale);
+        if (!locale.getVariant ().isEmpty ())
+          {
+            builder.setVariant ("");
+          }
+        else if (!locale.getCountry ().isEmpty ())
+          {
+            builder.setRegion ("");
+          }
+        else if (!locale.getScript ().isEmpty ())
+          {
+            builder.setScript ("");
+          }
+        else
+          {
+            return null;
+          }
+        Locale parent = builder.build ();
+        return effectiveScript (parent).equals (effectiveScript (locale)) ?
+                 parent : null;
+      } // parentOf
+
+    /**
+     * Get the fallback chain of a locale.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     * @return locale language tags of the chain, starting with the locale
+     *         itself
+     */
+    public static String [] getFallbackChain (String localeTag)
+      {
+        LinkedHashSet<String> chain = new LinkedHashSet<String> ();
+        chain.add (localeTag);
+        Locale locale = I18nHandler.lookupLocale (localeTag);
+        if (locale.getLanguage ().isEmpty ())
+          {
+            // not a well-formed tag, so no fallback but exact match
+            return chain.toArray (new String [chain.size ()]);
+          }
+        String script = effectiveScript (locale);
+        if (locale.getScript ().isEmpty () && !script.isEmpty ())
+          {
+            locale = new Locale.Builder ().setLocale (locale)
+                                          .setScript (script).build ();
+            chain.add (locale.toLanguageTag ());
+          }
+        Locale last = locale;
+        for (Locale parent = parentOf (locale);
+             parent != null && chain.add (parent.toLanguageTag ());
+             parent = parentOf (parent))
+          {
+            last = parent;
+          }
+        if (locale.getCountry ().isEmpty ())
+          {
+            String base = last.getLanguage ();
+            if (!script.isEmpty ())
+              {
+                base = base + "-" + script;
+              }
+            String region = likelyRegions.get (base);
+            if (region != null)
+              {
+                chain.add (base + "-" + region);
+              }
+          }
+        return chain.toArray (new String [chain.size ()]);
+      } // getFallbackChain
+
+  } // class I18nLocaleFallback
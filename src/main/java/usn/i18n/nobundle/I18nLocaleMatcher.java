@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>An alternative locale negotiation strategy for {@link I18nHandler} that
+ * scores every locale available for an item by its language distance from
+ * every user preferred locale, and picks the best scoring one.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>The default strategy of {@link I18nHandler} walks the
+ * {@link I18nLocaleFallback fallback chains} of preferred locales and takes
+ * the first hit, which is fast and predictable, but e.g. for a user preferring
+ * {@code en-AU} it does not tell {@code en-GB} from {@code en-US}. This
+ * matcher is meant for customer facing applications that want the best
+ * available match instead. It is put in place via
+ * {@link I18nHandler#setLocaleMatcher(I18nLocaleMatcher)}.</p>
+ * 
+ * <p>The distance between a preferred locale and an available one is:</p>
+ * <ul>
+ *   <li>the position of the available locale in the fallback chain of the
+ *       preferred one, if there, e.g. 1 for {@code en-001} when
+ *       {@code en-AU} is preferred;</li>
+ *   <li>otherwise, for locales of the same language and script,
+ *       {@value #REGION_DISTANCE} plus the position of the nearest common
+ *       ancestor in the fallback chain of the preferred locale, e.g. 4 for
+ *       {@code en-GB} and 5 for {@code en-US} when {@code en-AU} is
+ *       preferred;</li>
+ *   <li>{@value #SCRIPT_DISTANCE} for locales of the same language written in
+ *       different scripts, like {@code zh-TW} and {@code zh-CN};</li>
+ *   <li>and {@value #LANGUAGE_DISTANCE} for different languages.</li>
+ * </ul>
+ * 
+ * <p>Available locales farther from a preferred locale than the
+ * {@link #setThreshold(int) threshold} do not match it at all. Among the
+ * matching ones, the score of a locale is its distance plus a demotion of the
+ * preferred locale, which is the greater of its rank in the list of
+ * preferences times {@value #RANK_DEMOTION} and its
+ * {@link LocalePreferences#getUserWeights() quality value} shortfall in
+ * percent, so that {@code de-AT} still wins over {@code en} for a user
+ * preferring {@code de} to {@code en}. Preferred locales with zero quality are
+ * not acceptable. Should no preferred locale match, the application default
+ * locale is tried the same way, then English, and finally the first locale
+ * available.</p>
+ * 
+ * <p>Scoring is done only once for every combination of user preferences and
+ * set of available locales, with results being cached by the set shared by
+ * all items having the same locales, normally a handful of sets per
+ * application, so that resolving an item normally costs a lookup of an
+ * already known result.</p>
+ */
+public class I18nLocaleMatcher
+  {
+    /**
+     * The distance between different languages.
+     */
+    public static final int LANGUAGE_DISTANCE = 100;
+
+    /**
+     * The distance between different scripts of the same language.
+     */
+    public static final int SCRIPT_DISTANCE = 50;
+
+    /**
+     * The base distance between different regions of the same language and
+     * script.
+     */
+    public static final int REGION_DISTANCE = 3;
+
+    /**
+     * The demotion of every next preferred locale.
+     */
+    public static final int RANK_DEMOTION = 10;
+
+    /**
+     * The default {@link #setThreshold(int) threshold}, letting regional
+     * variants match but not other scripts.
+     */
+    public static final int DEFAULT_THRESHOLD = 20;
+
+    /**
+     * The counter of matchers created, to identify them.
+     */
+    private static final AtomicInteger counter = new AtomicInteger ();
+
+    /**
+     * The demotion of the application default locale and of English, to be
+     * tried only when no preferred locale matches.
+     */
+    private static final int FALLBACK_DEMOTION = 10000;
+
+    /**
+     * The maximum distance for an available locale to match.
+     */
+    private volatile int threshold = DEFAULT_THRESHOLD;
+
+    /**
+     * The number identifying this matcher.
+     */
+    private final int id = counter.incrementAndGet ();
+
+    /**
+     * The key identifying this matcher and its configuration, replaced
+     * whenever the configuration changes.
+     */
+    private volatile String key = makeKey (this.id, DEFAULT_THRESHOLD);
+
+    /**
+     * Set the maximum distance for an available locale to match a preferred
+     * one. All caches that depend on the handler are invalidated.
+     * 
+     * @param threshold the maximum distance, e.g. {@link #DEFAULT_THRESHOLD}
+     *                  for regional variants only, or
+     *                  {@link #SCRIPT_DISTANCE} to accept other scripts
+     * @throws IllegalArgumentException if {@code threshold} is negative
+     */
+    public void setThreshold (int threshold)
+        throws IllegalArgumentException
+      {
+        if (threshold < 0)
+          {
+            throw new IllegalArgumentException
+              ("Negative threshold: " + threshold);
+          }
+        this.threshold = threshold;
+        this.key = makeKey (this.id, threshold);
+        I18nHandler.invalidateCaches ();
+      } // setThreshold
+
+    /**
+     * Get the maximum distance for an available locale to match.
+     * 
+     * @return the threshold
+     */
+    public int getThreshold ()
+      {
+        return this.threshold;
+      } // getThreshold
+
+    /**
+     * Compute the distance between a preferred locale and an available one.
+     * 
+     * @param desiredTag the {@link Locale#toLanguageTag() language tag} of
+     *                   the preferred locale
+     * @param supportedTag the {@link Locale#toLanguageTag() language tag} of
+     *                     the available locale
+     * @return the distance, {@code 0} for equal locales
+     */
+    public static int distance (String desiredTag, String supportedTag)
+      {
+        return distance (desiredTag,
+                         I18nLocaleFallback.getFallbackChain (desiredTag),
+                         supportedTag,
+                         I18nLocaleFallback.getFallbackChain (supportedTag));
+      } // distance
+
+    /**
+     * Compute the distance between a preferred locale and an available one,
+     * with their fallback chains computed beforehand.
+     * 
+     * @param desiredTag the language tag of the preferred locale
+     * @param desiredChain the fallback chain of the preferred locale
+     * @param supportedTag the language tag of the available locale
+     * @param supportedChain the fallback chain of the available locale
+     * @return the distance
+     */
+    private static int distance (String desiredTag, String [] desiredChain,
+                                 String supportedTag, String [] supportedChain)
+      {
+        List<String> supportedList = Arrays.asList (supportedChain);
+        for (int i = 0; i < desiredChain.length; i++)
+          {
+            if (desiredChain [i].equals (supportedTag))
+              {
+                return i;
+              }
+          }
+        String desiredKey = I18nLocaleFallback.languageKey (desiredTag);
+        String supportedKey = I18nLocaleFallback.languageKey (supportedTag);
+        if (desiredKey.equals (supportedKey))
+          {
+            for (int i = 0; i < desiredChain.length; i++)
+              {
+                if (supportedList.contains (desiredChain [i]))
+                  {
+                    return REGION_DISTANCE + i;
+                  }
+              }
+            return REGION_DISTANCE + desiredChain.length;
+          }
+        String desiredLanguage =
+            I18nHandler.lookupLocale (desiredTag).getLanguage ();
+        String supportedLanguage =
+            I18nHandler.lookupLocale (supportedTag).getLanguage ();
+        return (!desiredLanguage.isEmpty () &&
+                desiredLanguage.equals (supportedLanguage)) ?
+                 SCRIPT_DISTANCE : LANGUAGE_DISTANCE;
+      } // distance
+
+    /**
+     * Make the key identifying a matcher and its configuration.
+     * 
+     * @param id the number identifying the matcher
+     * @param threshold the threshold of the matcher
+     * @return the key
+     */
+    private static String makeKey (int id, int threshold)
+      {
+        return "#" + id + "/" + threshold;
+      } // makeKey
+
+    /**
+     * Get the key identifying this matcher and its configuration, for results
+     * of matching to be cached along with those of other strategies. The key
+     * is the same instance for as long as the configuration does not change.
+     * 
+     * @return the key
+     */
+    String getKey ()
+      {
+        return this.key;
+      } // getKey
+
+    /**
+     * Score all available locales against given preferences.
+     * 
+     * @param localeTags language tags of available locales
+     * @param preferences user locale preferences as negotiated beforehand
+     * @return the index of the best scoring locale
+     * @throws NoSuchElementException if there are no locales available
+     */
+    int score (String [] localeTags, LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        if (localeTags.length == 0)
+          {
+            throw new NoSuchElementException ();
+          }
+        String [][] supportedChains = new String [localeTags.length][];
+        for (int j = 0; j < localeTags.length; j++)
+          {
+            supportedChains [j] =
+                I18nLocaleFallback.getFallbackChain (localeTags [j]);
+          }
+        int threshold = this.threshold;
+        int bestIndex = 0;
+        int bestScore = Integer.MAX_VALUE;
+        String [] userLocaleTags = preferences.userLocaleTags;
+        int count = userLocaleTags.length;
+        for (int i = 0; i < count + 2; i++)
+          {
+            String desiredTag;
+            int demotion;
+            if (i < count)
+              {
+                desiredTag = userLocaleTags [i];
+                float weight = preferences.getUserWeight (i);
+                if (weight <= 0.0f)
+                  {
+                    // not acceptable
+                    continue;
+                  }
+                demotion = Math.max (i * RANK_DEMOTION,
+                                     Math.round ((1.0f - weight) * 100.0f));
+              }
+            else
+              {
+                desiredTag = (i == count) ?
+                               preferences.defaultLocaleTag :
+                               Locale.ENGLISH.toLanguageTag ();
+                demotion = FALLBACK_DEMOTION * (i - count + 1);
+              }
+            if (demotion >= bestScore)
+              {
+                continue;
+              }
+            String [] desiredChain =
+                I18nLocaleFallback.getFallbackChain (desiredTag);
+            for (int j = 0; j < localeTags.length; j++)
+              {
+                int distance = distance (desiredTag, desiredChain,
+                                         localeTags [j], supportedChains [j]);
+                if (distance <= threshold && demotion + distance < bestScore)
+                  {
+                    bestScore = demotion + distance;
+                    bestIndex = j;
+                  }
+              }
+          }
+        return bestIndex;
+      } // score
+
+  } // class I18nLocaleMatcher
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>An optional catalog-wide pool deduplicating messages decoded from catalog
+ * files, to cut heap usage of large catalogs.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Once {@link #install() installed}, the pool is applied to every message
+ * that is decoded from a catalog file to be kept on the heap, i.e. to messages
+ * cached by {@link I18nCatalogOverlay overlays} and to tables of messages
+ * materialized by {@link I18nColdCatalog cold catalogs}. Equal messages of
+ * all such items, like "OK" or "Cancel", end up as one instance, while equal
+ * sets of locales are shared by all items anyway. Messages decoded before the
+ * pool was installed stay as they are.</p>
+ * 
+ * <p>Messages given as string literals in code are shared by the JVM already,
+ * so the pool leaves them alone, as it does with messages of
+ * {@link I18nCatalogSnapshot snapshots}, which are decoded on every access
+ * and never kept on the heap. The pool holds its messages weakly, so a
+ * message is dropped from the pool as soon as no store refers to it any
+ * longer.</p>
+ * 
+ * <p>A simple usage example, to be run before any catalogs are loaded:</p>
+ * <pre>
+ * new I18nMessagePool ().install ();
+ * </pre>
+ */
+public final class I18nMessagePool
+  {
+    /**
+     * The pool applied to decoded messages, or {@code null} if none.
+     */
+    private static volatile I18nMessagePool installed = null;
+
+    /**
+     * Pooled messages, indexed by themselves and referenced weakly both ways,
+     * guarded by the map itself.
+     */
+    private final WeakHashMap<String, WeakReference<String>> messages =
+        new WeakHashMap<String, WeakReference<String>> ();
+
+    /**
+     * The number of messages pooled.
+     */
+    private final AtomicLong messageCount = new AtomicLong ();
+
+    /**
+     * The constructor.
+     */
+    public I18nMessagePool ()
+      {
+      } // I18nMessagePool
+
+    /**
+     * Install this pool to be applied to every message decoded from a catalog
+     * file, replacing the pool installed before, if any.
+     */
+    public void install ()
+      {
+        installed = this;
+      } // install
+
+    /**
+     * Stop applying any pool to decoded messages. Messages already pooled stay
+     * as they are.
+     */
+    public static void uninstall ()
+      {
+        installed = null;
+      } // uninstall
+
+    /**
+     * Get the pooled instance of a message just decoded from a catalog file,
+     * applying the installed pool, if any.
+     * 
+     * @param message the message
+     * @return the pooled instance, or the message itself if no pool is
+     *         installed
+     */
+    static String pooled (String message)
+      {
+        I18nMessagePool pool = installed;
+        return (pool != null) ? pool.pooledMessage (message) : message;
+      } // pooled
+
+    /**
+     * Get the pooled instance of a message.
+     * 
+     * @param message the message
+     * @return the pooled instance
+     */
+    private String pooledMessage (String message)
+      {
+        this.messageCount.incrementAndGet ();
+        synchronized (this.messages)
+          {
+            WeakReference<String> reference = this.messages.get (message);
+            String pooled = (reference != null) ? reference.get () : null;
+            if (pooled != null)
+              {
+                return pooled;
+              }
+            this.messages.put (message, new WeakReference<String> (message));
+            return message;
+          }
+      } // pooledMessage
+
+    /**
+     * Get the number of messages pooled so far.
+     * 
+     * @return the number of messages
+     */
+    public long getMessageCount ()
+      {
+        return this.messageCount.get ();
+      } // getMessageCount
+
+    /**
+     * Get the number of distinct messages currently in the pool. Messages no
+     * longer referenced by any store are not counted once collected.
+     * 
+     * @return the number of distinct messages
+     */
+    public int getDistinctMessageCount ()
+      {
+        synchronized (this.messages)
+          {
+            return this.messages.size ();
+          }
+      } // getDistinctMessageCount
+
+  } // class I18nMessagePool
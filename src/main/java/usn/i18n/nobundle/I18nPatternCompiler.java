@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>An optional background compiler of message patterns, validating and
+ * compiling patterns of {@link I18nItem} instances in a thread pool ahead of
+ * their use.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Once {@link #install() installed}, the compiler takes every item that
+ * takes formatting arguments upon its construction, so it should be installed
+ * before classes declaring items get initialized; items constructed before may
+ * be submitted via {@link #submit(Class[])} or {@link #submitAll()}. Compiled
+ * patterns are published to items, so that formatting on request threads
+ * finds them ready.</p>
+ * 
+ * <p>Should a pattern of an item fail to compile, the failure is logged, and
+ * the item fails fast: every further attempt to format it, for any locale,
+ * throws an {@link IllegalArgumentException} right away, so that a malformed
+ * pattern is noticed in any locale rather than only in the one affected.
+ * Failures may also be checked via {@link #getFailures()}, e.g. by a readiness
+ * probe after {@link #awaitIdle(long,TimeUnit)}.</p>
+ * 
+ * <p>A simple usage example, to be run before any items are initialized:</p>
+ * <pre>
+ * new I18nPatternCompiler (2).install ();
+ * </pre>
+ */
+public final class I18nPatternCompiler
+  {
+    /**
+     * The logger for reporting malformed patterns.
+     */
+    private static final Logger logger =
+        LoggerFactory.getLogger (I18nPatternCompiler.class);
+
+    /**
+     * The compiler taking new items, or {@code null} if none.
+     */
+    private static volatile I18nPatternCompiler installed = null;
+
+    /**
+     * The thread pool compiling patterns.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The number of items submitted and not compiled yet.
+     */
+    private int pending = 0;
+
+    /**
+     * Descriptions of failures found so far.
+     */
+    private final List<String> failures = new ArrayList<String> ();
+
+    /**
+     * The constructor.
+     * 
+     * @param threads the number of daemon threads to compile patterns with
+     */
+    public I18nPatternCompiler (int threads)
+      {
+        final AtomicInteger threadNumber = new AtomicInteger ();
+        this.executor = Executors.newFixedThreadPool
+          (threads,
+           new ThreadFactory ()
+             {
+               @Override
+               public Thread newThread (Runnable runnable)
+                 {
+                   Thread thread = new Thread
+                       (runnable, "I18nPatternCompiler-" +
+                                  threadNumber.incrementAndGet ());
+                   thread.setDaemon (true);
+                   return thread;
+                 } // newThread
+             });
+      } // I18nPatternCompiler
+
+    /**
+     * Install this compiler to take every item upon its construction,
+     * replacing the compiler installed before, if any.
+     */
+    public void install ()
+      {
+        installed = this;
+      } // install
+
+    /**
+     * Stop submitting items to any compiler upon their construction. Items
+     * already submitted are still compiled.
+     */
+    public static void uninstall ()
+      {
+        installed = null;
+      } // uninstall
+
+    /**
+     * Submit an item being constructed to the installed compiler, if any.
+     * 
+     * @param item the item
+     */
+    static void submitNew (I18nItem item)
+      {
+        I18nPatternCompiler compiler = installed;
+        if (compiler != null)
+          {
+            compiler.submit (item);
+          }
+      } // submitNew
+
+    /**
+     * Submit items held by static fields of given classes.
+     * 
+     * @param holders classes declaring static {@link I18nItem} fields
+     */
+    public void submit (Class<?>... holders)
+      {
+        for (Class<?> holder : holders)
+          {
+            for (I18nItem item :
+                   I18nItemRegistry.collectItems (holder).values ())
+              {
+                this.submit (item);
+              }
+          }
+      } // submit
+
+    /**
+     * Submit all items known to {@link I18nItemRegistry}.
+     */
+    public void submitAll ()
+      {
+        for (I18nItem item : I18nItemRegistry.getItems ())
+          {
+            if (item != null)
+              {
+                this.submit (item);
+              }
+          }
+      } // submitAll
+
+    /**
+     * Submit an item, unless it takes no formatting arguments.
+     * 
+     * @param item the item
+     */
+    private void submit (final I18nItem item)
+      {
+        if (!item.isFormatted ())
+          {
+            return;
+          }
+        synchronized (this)
+          {
+            this.pending++;
+          }
+        try
+          {
+            this.executor.execute
+              (new Runnable ()
+                 {
+                   @Override
+                   public void run ()
+                     {
+                       try
+                         {
+                           compile (item);
+                         }
+                       finally
+                         {
+                           done ();
+                         }
+                     } // run
+                 });
+          }
+        catch (RejectedExecutionException e)
+          {
+            // shut down already, so the item is left to be compiled lazily
+            this.done ();
+          }
+      } // submit
+
+    /**
+     * Compile patterns of an item, recording a failure if any.
+     * 
+     * @param item the item
+     */
+    private void compile (I18nItem item)
+      {
+        try
+          {
+            item.store.precompile ();
+          }
+        catch (IllegalArgumentException e)
+          {
+            String name = I18nItemRegistry.getName (item.id);
+            String failure = "i18n item " +
+                             (name != null ? name : "#" + item.id) + ": " +
+                             e.getMessage ();
+            synchronized (this)
+              {
+                this.failures.add (failure);
+              }
+            logger.error (failure, e.getCause ());
+          }
+      } // compile
+
+    /**
+     * Count an item as compiled.
+     */
+    private synchronized void done ()
+      {
+        if (--this.pending == 0)
+          {
+            this.notifyAll ();
+          }
+      } // done
+
+    /**
+     * Wait for all items submitted so far to be compiled.
+     * 
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return {@code true} if all items have been compiled
+     * @throws InterruptedException should the waiting thread be interrupted
+     */
+    public synchronized boolean awaitIdle (long timeout, TimeUnit unit)
+        throws InterruptedException
+      {
+        long deadline = System.nanoTime () + unit.toNanos (timeout);
+        while (this.pending > 0)
+          {
+            long remaining = deadline - System.nanoTime ();
+            if (remaining <= 0)
+              {
+                return false;
+              }
+            TimeUnit.NANOSECONDS.timedWait (this, remaining);
+          }
+        return true;
+      } // awaitIdle
+
+    /**
+     * Get descriptions of failures found so far.
+     * 
+     * @return a new list of failure descriptions
+     */
+    public synchronized List<String> getFailures ()
+      {
+        return new ArrayList<String> (this.failures);
+      } // getFailures
+
+    /**
+     * Stop the thread pool, uninstalling this compiler if installed. Items
+     * already submitted are still compiled.
+     */
+    public void shutdown ()
+      {
+        synchronized (I18nPatternCompiler.class)
+          {
+            if (installed == this)
+              {
+                installed = null;
+              }
+          }
+        this.executor.shutdown ();
+      } // shutdown
+
+  } // class I18nPatternCompiler
@@ -0,0 +1,764 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.lang.ref.WeakReference;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>A search index over messages of {@link I18nItem} instances, for
+ * type-ahead search over localized labels in the language of a user.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>The index covers either all items of the {@link I18nItemRegistry} or a
+ * given set of items, and is built lazily per locale, with the message of
+ * every item taken for its best locale, just as for a user preferring that
+ * locale. Messages and queries are normalized with case and accent folding,
+ * so that {@code "zur"} finds <code>"Z&uuml;rich"</code>. Prefix queries
+ * match at word starts and take a binary search over a sorted array of word
+ * starts, while substring queries scan normalized messages without
+ * formatting or normalizing them anew.</p>
+ * 
+ * <p>Indexes are kept per combination of locales items resolve to, so that
+ * locale tags resolving alike, like {@code de} and {@code de-AT} with items
+ * having just German, share one index. At most {@value #MAX_INDEXED_LOCALES}
+ * indexes are kept, least recently used ones being evicted first.</p>
+ * 
+ * <p>Every query compares the {@link I18nItemRegistry#getGeneration()
+ * generation} of the registry, advancing whenever items are registered or
+ * released, or have their messages replaced, like by an
+ * {@link I18nCatalogOverlay}, and the {@link I18nHandler#getEpoch() epoch}
+ * of the handler with those the index has been built for, and re-indexes
+ * only the items affected. Items are held weakly, and are returned in the
+ * order of their IDs, or of the set given.</p>
+ * 
+ * <p>A simple usage example:</p>
+ * <pre>
+ * static final I18nSearchIndex INDEX = new I18nSearchIndex ();
+ * ...
+ * List&lt;I18nItem&gt; found = INDEX.findByPrefix ("de", query, 10);
+ * </pre>
+ */
+public final class I18nSearchIndex
+  {
+    /**
+     * The maximum number of indexes kept, to bound memory taken by indexes
+     * for locale tags coming from users.
+     */
+    static final int MAX_INDEXED_LOCALES = 64;
+
+    /**
+     * The maximum number of locale tags whose keys are remembered.
+     */
+    static final int MAX_LOCALE_TAGS = 4 * MAX_INDEXED_LOCALES;
+
+    /**
+     * Items of the set indexed, or {@code null} to index all registered
+     * items.
+     */
+    private final I18nItem [] items;
+
+    /**
+     * Indexes, by keys naming locales items resolve to, in the order of
+     * access. Guarded by itself.
+     */
+    private final LinkedHashMap<String, Snapshot> snapshots =
+        new LinkedHashMap<String, Snapshot> (16, 0.75f, true)
+          {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry
+                (Map.Entry<String, Snapshot> eldest)
+              {
+                return this.size () > MAX_INDEXED_LOCALES;
+              } // removeEldestEntry
+          };
+
+    /**
+     * Keys of indexes, by locale tags queried, in the order of access.
+     * Guarded by itself.
+     */
+    private final LinkedHashMap<String, Alias> aliases =
+        new LinkedHashMap<String, Alias> (16, 0.75f, true)
+          {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry
+                (Map.Entry<String, Alias> eldest)
+              {
+                return this.size () > MAX_LOCALE_TAGS;
+              } // removeEldestEntry
+          };
+
+    /**
+     * Distinct locale sets of items indexed, as of
+     * {@link #localeSetsGeneration}. Guarded by this instance.
+     */
+    private LocaleSet [] localeSets = null;
+
+    /**
+     * The registry generation {@link #localeSets} have been collected in.
+     * Guarded by this instance.
+     */
+    private long localeSetsGeneration = -1;
+
+    /**
+     * The key of the index for a locale tag, with the preferences negotiated
+     * for the tag.
+     */
+    private static final class Alias
+      {
+        /**
+         * The key of the index.
+         */
+        final String key;
+
+        /**
+         * Locale preferences negotiated for the tag.
+         */
+        final LocalePreferences preferences;
+
+        /**
+         * The registry generation the key has been found in.
+         */
+        final long generation;
+
+        /**
+         * The constructor.
+         * 
+         * @param key the key of the index
+         * @param preferences locale preferences
+         * @param generation the registry generation
+         */
+        Alias (String key, LocalePreferences preferences, long generation)
+          {
+            this.key = key;
+            this.preferences = preferences;
+            this.generation = generation;
+          } // Alias
+
+        /**
+         * Check whether the key still applies.
+         * 
+         * @param generation the current registry generation
+         * @return {@code true} if neither the registry nor the handler
+         *         configuration have changed since
+         */
+        boolean isCurrent (long generation)
+          {
+            return this.generation == generation &&
+                   this.preferences.isCurrent ();
+          } // isCurrent
+      } // class Alias
+
+    /**
+     * An immutable index for a locale, with the data it has been built from.
+     */
+    private static final class Snapshot
+      {
+        /**
+         * Locale preferences items have been resolved for.
+         */
+        final LocalePreferences preferences;
+
+        /**
+         * The registry generation the index has been built in.
+         */
+        final long generation;
+
+        /**
+         * Items, by positions, being IDs for an index over the registry, held
+         * weakly, with {@code null} for positions having no item as of
+         * indexing.
+         */
+        final WeakReference<I18nItem> [] items;
+
+        /**
+         * Stores of items, as of indexing.
+         */
+        final MessageStore [] stores;
+
+        /**
+         * Indexes of best locales in {@link #stores}.
+         */
+        final int [] indexes;
+
+        /**
+         * Normalized messages, by positions.
+         */
+        final String [] texts;
+
+        /**
+         * Word starts in normalized messages, sorted by text starting there,
+         * each packed as the position in the upper half and the offset in the
+         * message in the lower half.
+         */
+        final long [] wordStarts;
+
+        /**
+         * The constructor.
+         * 
+         * @param preferences locale preferences
+         * @param generation the registry generation
+         * @param items items, by positions
+         * @param stores stores of items
+         * @param indexes indexes of best locales in stores
+         * @param texts normalized messages
+         * @param wordStarts sorted word starts
+         */
+        Snapshot (LocalePreferences preferences, long generation,
+                  WeakReference<I18nItem> [] items, MessageStore [] stores,
+                  int [] indexes, String [] texts, long [] wordStarts)
+          {
+            this.preferences = preferences;
+            this.generation = generation;
+            this.items = items;
+            this.stores = stores;
+            this.indexes = indexes;
+            this.texts = texts;
+            this.wordStarts = wordStarts;
+          } // Snapshot
+
+        /**
+         * Check whether the index is up to date.
+         * 
+         * @param generation the current registry generation
+         * @return {@code true} if neither the registry nor the handler
+         *         configuration have changed since indexing
+         */
+        boolean isCurrent (long generation)
+          {
+            return this.generation == generation &&
+                   this.preferences.isCurrent ();
+          } // isCurrent
+
+        /**
+         * Get the item at a position.
+         * 
+         * @param position the position
+         * @return the item, or {@code null} if none or garbage collected
+         */
+        I18nItem item (int position)
+          {
+            WeakReference<I18nItem> item = this.items [position];
+            return (item != null) ? item.get () : null;
+          } // item
+
+        /**
+         * Get the normalized message a word start points into.
+         * 
+         * @param wordStart the word start
+         * @return the normalized message
+         */
+        String text (long wordStart)
+          {
+            return this.texts [(int) (wordStart >>> 32)];
+          } // text
+      } // class Snapshot
+
+    /**
+     * The constructor for an index over all items of the
+     * {@link I18nItemRegistry}, including those registered later.
+     */
+    public I18nSearchIndex ()
+      {
+        this.items = null;
+      } // I18nSearchIndex
+
+    /**
+     * The constructor for an index over a set of items.
+     * 
+     * @param items items to index
+     */
+    public I18nSearchIndex (I18nItem... items)
+      {
+        this.items = items.clone ();
+      } // I18nSearchIndex
+
+    /**
+     * Find items having a word of their message start with a query, after
+     * case and accent folding.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     *                  of the locale to search in, typically the best
+     *                  preferred one of the user
+     * @param query the text typed
+     * @param limit the maximum number of items to return
+     * @return items found, in the order of their IDs, or of the set given
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    public List<I18nItem> findByPrefix (String localeTag, String query,
+                                        int limit)
+        throws NoSuchElementException
+      {
+        Snapshot snapshot = this.getSnapshot (localeTag);
+        String prefix = normalize (query);
+        long [] wordStarts = snapshot.wordStarts;
+        // find the first word start not less than the prefix
+        int low = 0;
+        int high = wordStarts.length;
+        while (low < high)
+          {
+            int middle = (low + high) >>> 1;
+            long wordStart = wordStarts [middle];
+            if (compare (snapshot.text (wordStart), (int) wordStart,
+                         prefix, 0) < 0)
+              {
+                low = middle + 1;
+              }
+            else
+              {
+                high = middle;
+              }
+          }
+        BitSet found = new BitSet (snapshot.items.length);
+        for (int i = low; i < wordStarts.length; i++)
+          {
+            long wordStart = wordStarts [i];
+            if (!snapshot.text (wordStart).startsWith (prefix, (int) wordStart))
+              {
+                break;
+              }
+            found.set ((int) (wordStart >>> 32));
+          }
+        List<I18nItem> result = new ArrayList<I18nItem> ();
+        for (int position = found.nextSetBit (0);
+             position >= 0 && result.size () < limit;
+             position = found.nextSetBit (position + 1))
+          {
+            I18nItem item = snapshot.item (position);
+            if (item != null)
+              {
+                result.add (item);
+              }
+          }
+        return Collections.unmodifiableList (result);
+      } // findByPrefix
+
+    /**
+     * Find items having their message contain a query, after case and accent
+     * folding.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     *                  of the locale to search in, typically the best
+     *                  preferred one of the user
+     * @param query the text typed
+     * @param limit the maximum number of items to return
+     * @return items found, in the order of their IDs, or of the set given
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    public List<I18nItem> findBySubstring (String localeTag, String query,
+                                           int limit)
+        throws NoSuchElementException
+      {
+        Snapshot snapshot = this.getSnapshot (localeTag);
+        String substring = normalize (query);
+        List<I18nItem> result = new ArrayList<I18nItem> ();
+        for (int position = 0;
+             position < snapshot.texts.length && result.size () < limit;
+             position++)
+          {
+            String text = snapshot.texts [position];
+            if (text != null && text.contains (substring))
+              {
+                I18nItem item = snapshot.item (position);
+                if (item != null)
+                  {
+                    result.add (item);
+                  }
+              }
+          }
+        return Collections.unmodifiableList (result);
+      } // findBySubstring
+
+    /**
+     * Get the index for a locale, building or updating it as necessary.
+     * 
+     * @param localeTag the locale language tag
+     * @return the index, up to date
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    private Snapshot getSnapshot (String localeTag)
+        throws NoSuchElementException
+      {
+        long generation = I18nItemRegistry.getGeneration ();
+        Snapshot snapshot = this.lookup (localeTag, generation);
+        if (snapshot != null)
+          {
+            return snapshot;
+          }
+        // only one thread updates indexes at a time, others waiting for it
+        // rather than duplicating its work
+        synchronized (this)
+          {
+            generation = I18nItemRegistry.getGeneration ();
+            snapshot = this.lookup (localeTag, generation);
+            if (snapshot != null)
+              {
+                return snapshot;
+              }
+            I18nHandler handler = I18nHandler.getHandler ();
+            Alias alias;
+            synchronized (this.aliases)
+              {
+                alias = this.aliases.get (localeTag);
+              }
+            LocalePreferences preferences =
+                (alias != null && alias.preferences.isCurrent ()) ?
+                  alias.preferences :
+                  handler.newLocalePreferences (new String [] {localeTag});
+            I18nItem [] items = null;
+            if (this.localeSetsGeneration != generation)
+              {
+                items = this.currentItems ();
+                this.localeSets = distinctLocaleSets (items);
+                this.localeSetsGeneration = generation;
+              }
+            String key = this.keyFor (handler, preferences);
+            synchronized (this.snapshots)
+              {
+                snapshot = this.snapshots.get (key);
+              }
+            if (snapshot == null || !snapshot.isCurrent (generation))
+              {
+                snapshot = this.build (handler, preferences, generation,
+                                       (items != null) ?
+                                         items : this.currentItems (),
+                                       snapshot);
+                synchronized (this.snapshots)
+                  {
+                    this.snapshots.put (key, snapshot);
+                  }
+              }
+            synchronized (this.aliases)
+              {
+                this.aliases.put (localeTag,
+                                  new Alias (key, preferences, generation));
+              }
+            return snapshot;
+          }
+      } // getSnapshot
+
+    /**
+     * Look up an index for a locale tag that is up to date.
+     * 
+     * @param localeTag the locale language tag
+     * @param generation the current registry generation
+     * @return the index, or {@code null} if none is up to date
+     */
+    private Snapshot lookup (String localeTag, long generation)
+      {
+        Alias alias;
+        synchronized (this.aliases)
+          {
+            alias = this.aliases.get (localeTag);
+          }
+        if (alias == null || !alias.isCurrent (generation))
+          {
+            return null;
+          }
+        Snapshot snapshot;
+        synchronized (this.snapshots)
+          {
+            snapshot = this.snapshots.get (alias.key);
+          }
+        return (snapshot != null && snapshot.isCurrent (generation)) ?
+                 snapshot : null;
+      } // lookup
+
+    /**
+     * Get items to be indexed.
+     * 
+     * @return items of the set given, or all registered items indexed by IDs
+     */
+    private I18nItem [] currentItems ()
+      {
+        return (this.items != null) ?
+                 this.items : I18nItemRegistry.getItems ();
+      } // currentItems
+
+    /**
+     * Collect distinct locale sets of items.
+     * 
+     * @param items items, with {@code null} for no item
+     * @return distinct locale sets, in the order of first occurrence
+     */
+    private static LocaleSet [] distinctLocaleSets (I18nItem [] items)
+      {
+        // locale sets are interned, so identity is enough
+        IdentityHashMap<LocaleSet, Boolean> seen =
+            new IdentityHashMap<LocaleSet, Boolean> ();
+        List<LocaleSet> result = new ArrayList<LocaleSet> ();
+        LocaleSet lastLocaleSet = null;
+        for (I18nItem item : items)
+          {
+            if (item == null)
+              {
+                continue;
+              }
+            LocaleSet localeSet = item.store.localeSet;
+            if (localeSet != lastLocaleSet &&
+                seen.put (localeSet, Boolean.TRUE) == null)
+              {
+                result.add (localeSet);
+              }
+            lastLocaleSet = localeSet;
+          }
+        return result.toArray (new LocaleSet [result.size ()]);
+      } // distinctLocaleSets
+
+    /**
+     * Compose the key of the index for locale preferences, naming the locale
+     * every distinct locale set of items resolves to, or the preferred
+     * locales themselves should the handler override a matching hook.
+     * 
+     * @param handler the handler in place
+     * @param preferences locale preferences
+     * @return the key
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    private String keyFor (I18nHandler handler, LocalePreferences preferences)
+        throws NoSuchElementException
+      {
+        if (handler.hasMatchingHook ())
+          {
+            // locales found by a hook may differ item by item...
+            return Arrays.toString (preferences.userLocaleTags);
+          }
+        StringBuilder key = new StringBuilder ();
+        for (LocaleSet localeSet : this.localeSets)
+          {
+            if (key.length () > 0)
+              {
+                key.append (',');
+              }
+            key.append (localeSet.localeTags
+                          [handler.resolveLocaleIndex (localeSet,
+                                                       preferences)]);
+          }
+        return key.toString ();
+      } // keyFor
+
+    /**
+     * Build an index for a locale, re-indexing only items that have been
+     * added or have changed since the previous index, if any.
+     * 
+     * @param handler the handler in place
+     * @param preferences locale preferences
+     * @param generation the registry generation
+     * @param items items to index, with {@code null} for no item
+     * @param previous the previous index, or {@code null} if none
+     * @return the new index
+     * @throws NoSuchElementException should an item happen to be empty
+     */
+    @SuppressWarnings ({"unchecked", "rawtypes"})
+    private Snapshot build (I18nHandler handler, LocalePreferences preferences,
+                            long generation, I18nItem [] items,
+                            Snapshot previous)
+        throws NoSuchElementException
+      {
+        int count = items.length;
+        WeakReference<I18nItem> [] references = new WeakReference [count];
+        MessageStore [] stores = new MessageStore [count];
+        int [] indexes = new int [count];
+        final String [] texts = new String [count];
+        BitSet changed = new BitSet (count);
+        // handlers overriding a matching hook resolve item by item
+        boolean hook = handler.hasMatchingHook ();
+        LocaleSet lastLocaleSet = null;
+        int lastIndex = 0;
+        for (int i = 0; i < count; i++)
+          {
+            I18nItem item = items [i];
+            if (item == null)
+              {
+                changed.set (i);
+                continue;
+              }
+            MessageStore store = item.store;
+            if (store.localeSet != lastLocaleSet || hook)
+              {
+                lastLocaleSet = store.localeSet;
+                lastIndex = handler.resolveLocaleIndex (item, store,
+                                                        preferences);
+              }
+            stores [i] = store;
+            indexes [i] = lastIndex;
+            if (previous != null && i < previous.items.length &&
+                previous.item (i) == item && previous.stores [i] == store &&
+                previous.indexes [i] == lastIndex)
+              {
+                references [i] = previous.items [i];
+                texts [i] = previous.texts [i];
+              }
+            else
+              {
+                references [i] = new WeakReference<I18nItem> (item);
+                texts [i] = normalize (store.message (lastIndex));
+                changed.set (i);
+              }
+          }
+        if (previous != null)
+          {
+            for (int i = count; i < previous.items.length; i++)
+              {
+                changed.set (i);
+              }
+          }
+        // word starts of items kept are already sorted, so only those of
+        // items re-indexed get sorted and then merged in
+        List<Long> added = new ArrayList<Long> ();
+        for (int i = changed.nextSetBit (0); i >= 0 && i < count;
+             i = changed.nextSetBit (i + 1))
+          {
+            String text = texts [i];
+            if (text == null)
+              {
+                continue;
+              }
+            for (int offset = 0; offset < text.length (); offset++)
+              {
+                if (offset == 0 ||
+                    (Character.isLetterOrDigit (text.charAt (offset)) &&
+                     !Character.isLetterOrDigit (text.charAt (offset - 1))))
+                  {
+                    added.add (((long) i << 32) | offset);
+                  }
+              }
+          }
+        Comparator<Long> comparator = new Comparator<Long> ()
+          {
+            @Override
+            public int compare (Long wordStart1, Long wordStart2)
+              {
+                return I18nSearchIndex.compare
+                         (texts [(int) (wordStart1 >>> 32)],
+                          (int) wordStart1.longValue (),
+                          texts [(int) (wordStart2 >>> 32)],
+                          (int) wordStart2.longValue ());
+              } // compare
+          };
+        Collections.sort (added, comparator);
+        long [] kept = (previous != null) ? previous.wordStarts : new long [0];
+        long [] wordStarts = new long [kept.length + added.size ()];
+        int size = 0;
+        int next = 0;
+        for (long wordStart : kept)
+          {
+            if (changed.get ((int) (wordStart >>> 32)))
+              {
+                continue;
+              }
+            while (next < added.size () &&
+                   comparator.compare (added.get (next), wordStart) < 0)
+              {
+                wordStarts [size++] = added.get (next++);
+              }
+            wordStarts [size++] = wordStart;
+          }
+        while (next < added.size ())
+          {
+            wordStarts [size++] = added.get (next++);
+          }
+        return new Snapshot (preferences, generation, references, stores,
+                             indexes, texts, Arrays.copyOf (wordStarts, size));
+      } // build
+
+    /**
+     * Compare the text starting at an offset in one string with that starting
+     * at an offset in another string.
+     * 
+     * @param s1 the first string
+     * @param offset1 the offset in the first string
+     * @param s2 the second string
+     * @param offset2 the offset in the second string
+     * @return a negative number, zero or a positive number as the first text
+     *         is less than, equal to or greater than the second one
+     */
+    static int compare (String s1, int offset1, String s2, int offset2)
+      {
+        int length1 = s1.length () - offset1;
+        int length2 = s2.length () - offset2;
+        int length = Math.min (length1, length2);
+        for (int i = 0; i < length; i++)
+          {
+            char c1 = s1.charAt (offset1 + i);
+            char c2 = s2.charAt (offset2 + i);
+            if (c1 != c2)
+              {
+                return c1 - c2;
+              }
+          }
+        return length1 - length2;
+      } // compare
+
+    /**
+     * Normalize a text for searching, folding case and removing accents.
+     * 
+     * @param text the text
+     * @return the normalized text
+     */
+    static String normalize (String text)
+      {
+        String decomposed = Normalizer.normalize (text, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder (decomposed.length ());
+        for (int i = 0; i < decomposed.length (); i++)
+          {
+            char c = decomposed.charAt (i);
+            switch (Character.getType (c))
+              {
+                case Character.NON_SPACING_MARK:
+                case Character.ENCLOSING_MARK:
+                case Character.COMBINING_SPACING_MARK:
+                  break;
+                default:
+                  result.append
+                      (Character.toLowerCase (Character.toUpperCase (c)));
+              }
+          }
+        return result.toString ();
+      } // normalize
+
+  } // class I18nSearchIndex
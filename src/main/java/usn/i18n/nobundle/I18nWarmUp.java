@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A startup warm-up of all {@link I18nItem} instances known to
+ * {@link I18nItemRegistry}, resolving them for a configured list of locales
+ * and compiling their patterns in parallel, so that first requests do not hit
+ * cold caches.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>For every item and every locale the warm-up negotiates locale
+ * preferences, resolves the best locale of the item, extracting languages of
+ * its locales, obtains the message, materializing cold or compact storage if
+ * any, and compiles the message for formatting if the item takes arguments.
+ * Items are processed in a dedicated {@link ForkJoinPool}, with progress being
+ * reported periodically to an optional {@link ProgressListener} on the
+ * calling thread. The warm-up stops once its time budget is exhausted, leaving
+ * the rest of items to be warmed lazily as usual. Patterns failing to compile
+ * are logged and skipped.</p>
+ * 
+ * <p>Items are to be constructed and the handler is to be in place before the
+ * warm-up is run. A simple usage example:</p>
+ * <pre>
+ * boolean hot = new I18nWarmUp ("en", "fr", "de")
+ *     .setTimeBudget (5, TimeUnit.SECONDS)
+ *     .run ();
+ * </pre>
+ */
+public final class I18nWarmUp
+  {
+    /**
+     * A listener to be notified of warm-up progress.
+     */
+    public interface ProgressListener
+      {
+        /**
+         * Report warm-up progress, called on the thread running the warm-up.
+         * 
+         * @param done the number of items warmed up so far
+         * @param total the total number of items
+         */
+        void progress (int done, int total);
+      } // interface ProgressListener
+
+    /**
+     * The logger for reporting patterns failing to compile.
+     */
+    private static final Logger logger =
+        LoggerFactory.getLogger (I18nWarmUp.class);
+
+    /**
+     * The number of items to be warmed up by one task without splitting.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * The interval between progress reports, in milliseconds.
+     */
+    private static final long PROGRESS_INTERVAL_MILLIS = 100;
+
+    /**
+     * {@link java.util.Locale#toLanguageTag() Locale language tags} to warm up
+     * items for.
+     */
+    private final String [] localeTags;
+
+    /**
+     * The time budget in nanoseconds, or {@code Long.MAX_VALUE} for none.
+     */
+    private long timeBudgetNanos = Long.MAX_VALUE;
+
+    /**
+     * The parallelism level of the pool.
+     */
+    private int parallelism = Runtime.getRuntime ().availableProcessors ();
+
+    /**
+     * The listener to be notified of progress, or {@code null} if none.
+     */
+    private ProgressListener progressListener = null;
+
+    /**
+     * The constructor.
+     * 
+     * @param localeTags {@link java.util.Locale#toLanguageTag() locale language
+     *                   tags} to warm up items for
+     */
+    public I18nWarmUp (String... localeTags)
+      {
+        this.localeTags = localeTags.clone ();
+      } // I18nWarmUp
+
+    /**
+     * Limit the time the warm-up may take.
+     * 
+     * @param timeBudget the time budget
+     * @param unit the unit of the time budget
+     * @return this instance
+     */
+    public I18nWarmUp setTimeBudget (long timeBudget, TimeUnit unit)
+      {
+        this.timeBudgetNanos = unit.toNanos (timeBudget);
+        return this;
+      } // setTimeBudget
+
+    /**
+     * Set the number of threads to warm up items with, by default the number
+     * of available processors.
+     * 
+     * @param parallelism the number of threads
+     * @return this instance
+     * @throws IllegalArgumentException should the number be not positive
+     */
+    public I18nWarmUp setParallelism (int parallelism)
+        throws IllegalArgumentException
+      {
+        if (parallelism <= 0)
+          {
+            throw new IllegalArgumentException ();
+          }
+        this.parallelism = parallelism;
+        return this;
+      } // setParallelism
+
+    /**
+     * Set the listener to be notified of progress.
+     * 
+     * @param progressListener the listener, or {@code null} for none
+     * @return this instance
+     */
+    public I18nWarmUp setProgressListener (ProgressListener progressListener)
+      {
+        this.progressListener = progressListener;
+        return this;
+      } // setProgressListener
+
+    /**
+     * A task warming up a range of items, splitting it as necessary.
+     */
+    private final class WarmUpTask
+        extends RecursiveAction
+      {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * All items, indexed by IDs.
+         */
+        private final I18nItem [] items;
+
+        /**
+         * The range of items to warm up.
+         */
+        private final int from, to;
+
+        /**
+         * Negotiated preferences, locale by locale.
+         */
+        private final LocalePreferences [] preferences;
+
+        /**
+         * The handler to resolve items with.
+         */
+        private final I18nHandler handler;
+
+        /**
+         * The time when to stop, as per {@link System#nanoTime()}.
+         */
+        private final long deadline;
+
+        /**
+         * The counter of items warmed up.
+         */
+        private final AtomicInteger done;
+
+        WarmUpTask (I18nItem [] items, int from, int to,
+                    LocalePreferences [] preferences, I18nHandler handler,
+                    long deadline, AtomicInteger done)
+          {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.preferences = preferences;
+            this.handler = handler;
+            this.deadline = deadline;
+            this.done = done;
+          } // WarmUpTask
+
+        @Override
+        protected void compute ()
+          {
+            if (this.to - this.from > BATCH_SIZE)
+              {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll (new WarmUpTask (this.items, this.from, middle,
+                                           this.preferences, this.handler,
+                                           this.deadline, this.done),
+                           new WarmUpTask (this.items, middle, this.to,
+                                           this.preferences, this.handler,
+                                           this.deadline, this.done));
+                return;
+              }
+            for (int i = this.from; i < this.to; i++)
+              {
+                if (System.nanoTime () - this.deadline > 0)
+                  {
+                    return;
+                  }
+                if (this.items [i] != null)
+                  {
+                    warmUp (this.items [i], this.preferences, this.handler);
+                    this.done.incrementAndGet ();
+                  }
+              }
+          } // compute
+      } // class WarmUpTask
+
+    /**
+     * Warm up one item for all locales.
+     * 
+     * @param item the item
+     * @param preferences negotiated preferences, locale by locale
+     * @param handler the handler to resolve the item with
+     */
+    private static void warmUp (I18nItem item, LocalePreferences [] preferences,
+                                I18nHandler handler)
+      {
+        MessageStore store = item.store;
+        if (store.localeTags.length == 0)
+          {
+            return;
+          }
+        for (LocalePreferences localePreferences : preferences)
+          {
+            int index =
+                handler.resolveLocaleIndex (item, store, localePreferences);
+            String localeTag = store.localeTags [index];
+            try
+              {
+                if (item.isFormatted ())
+                  {
+                    store.compiledMessage (index);
+                  }
+                else
+                  {
+                    store.message (index);
+                  }
+              }
+            catch (IllegalArgumentException e)
+              {
+                String name = I18nItemRegistry.getName (item.id);
+                logger.warn ("Malformed i18n pattern for locale " + localeTag +
+                             " of item " +
+                             (name != null ? name : "#" + item.id), e);
+              }
+          }
+      } // warmUp
+
+    /**
+     * Run the warm-up, returning once all items are warmed up or the time
+     * budget is exhausted.
+     * 
+     * @return {@code true} if all items have been warmed up within the time
+     *         budget
+     * @throws IllegalStateException should no handler be in place
+     * @throws InterruptedException should the calling thread be interrupted
+     */
+    public boolean run ()
+        throws IllegalStateException, InterruptedException
+      {
+        long start = System.nanoTime ();
+        long deadline = start + Math.min (this.timeBudgetNanos,
+                                          Long.MAX_VALUE / 2);
+        I18nHandler handler = I18nHandler.getHandler ();
+        if (handler == null)
+          {
+            throw new IllegalStateException ("No I18nHandler is in place.");
+          }
+        LocalePreferences [] preferences =
+            new LocalePreferences [this.localeTags.length];
+        for (int i = 0; i < preferences.length; i++)
+          {
+            preferences [i] = handler.newLocalePreferences
+                (new String [] {this.localeTags [i]});
+          }
+        I18nItem [] items = I18nItemRegistry.getItems ();
+        int total = 0;
+        for (I18nItem item : items)
+          {
+            if (item != null)
+              {
+                total++;
+              }
+          }
+        AtomicInteger done = new AtomicInteger ();
+        ForkJoinPool pool = new ForkJoinPool (this.parallelism);
+        try
+          {
+            ForkJoinTask<Void> task = pool.submit
+                (new WarmUpTask (items, 0, items.length, preferences, handler,
+                                 deadline, done));
+            while (true)
+              {
+                try
+                  {
+                    task.get (PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    break;
+                  }
+                catch (TimeoutException e)
+                  {
+                    this.reportProgress (done.get (), total);
+                  }
+                catch (ExecutionException e)
+                  {
+                    throw new IllegalStateException ("I18n warm-up failed",
+                                                     e.getCause ());
+                  }
+              }
+          }
+        finally
+          {
+            pool.shutdownNow ();
+          }
+        this.reportProgress (done.get (), total);
+        return done.get () == total;
+      } // run
+
+    /**
+     * Report progress to the listener, if any.
+     * 
+     * @param done the number of items warmed up so far
+     * @param total the total number of items
+     */
+    private void reportProgress (int done, int total)
+      {
+        if (this.progressListener != null)
+          {
+            this.progressListener.progress (done, total);
+          }
+      } // reportProgress
+
+  } // class I18nWarmUp
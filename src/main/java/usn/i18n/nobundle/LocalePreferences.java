@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>An immutable representation of user locale preferences that have already
+ * been negotiated, to be reused for any number of {@link I18nItem} lookups on
+ * behalf of the same user.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Instances are created by {@link I18nHandler} subclasses via
+ * {@link I18nHandler#newLocalePreferences(String[])}. Besides user preferred
+ * locales as such, an instance holds the complete ordered collection of
+ * locales to be tried for every item, with application default locale and
+ * English appended, every locale being expanded into its
+ * {@link I18nLocaleFallback fallback chain}, and with language keys of all
+ * these locales extracted in advance. This way the work that does not depend
+ * on a particular item is done only once per preference object rather than
+ * once per item lookup.</p>
+ * 
+ * <p>Preferences negotiated by a handler depend on its configuration, so
+ * handlers that keep preferences for reuse check them with
+ * {@link #isCurrent()} first.</p>
+ * 
+ * <p>User preferred locales often come from requests as is, so they are
+ * normalized first: malformed and overlong tags, wildcards and duplicates
+ * are dropped, and all locales accepted beyond {@value #MAX_USER_LOCALES} are
+ * ignored. This way junk preferences cost no more than ordinary ones, and
+ * preference lists consisting of junk only end up equal to an empty one,
+ * sharing its cached results. Locales are not checked against languages
+ * available for items, as items get initialized lazily, and a locale not
+ * available yet may well become available later.</p>
+ * 
+ * <p>Instances are serializable to allow them being kept as
+ * {@link javax.servlet.http.HttpSession HttpSession} attributes.</p>
+ */
+public final class LocalePreferences
+    implements Serializable
+  {
+    /**
+     * Serialization version identifier.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of user preferred locales taken into account, with
+     * the rest being ignored once that many locales have been accepted.
+     */
+    public static final int MAX_USER_LOCALES = 16;
+
+    /**
+     * The maximum length of a user preferred locale tag, with longer tags
+     * being ignored.
+     */
+    public static final int MAX_LOCALE_TAG_LENGTH = 64;
+
+    /**
+     * An array of user preferred locales represented by their
+     * {@link Locale#toLanguageTag() language tags}, best preferred coming
+     * first, as supplied upon construction and normalized.
+     */
+    final String [] userLocaleTags;
+
+    /**
+     * Quality values of user preferred locales, index by index with
+     * {@link #userLocaleTags}, as specified by {@code q} parameters of
+     * {@code Accept-Language} headers, or {@code null} if not specified.
+     */
+    final float [] userWeights;
+
+    /**
+     * The {@link Locale#toLanguageTag() language tag} for application default
+     * locale.
+     */
+    final String defaultLocaleTag;
+
+    /**
+     * The overall ordered array of {@link Locale#toLanguageTag() locale
+     * language tags} to try exactly for every item, free of duplicates:
+     * fallback chains of user preferred locales, then of application default
+     * locale, then of English. An entry is {@code null} where only
+     * {@link #languagesToTry} is to be tried.
+     */
+    final String [] localeTagsToTry;
+
+    /**
+     * {@link I18nLocaleFallback#languageKey(String) Language keys} to try
+     * for every item after the exact locales preceding them, index by index
+     * with {@link #localeTagsToTry}, free of duplicates. An entry is
+     * {@code null} where only {@link #localeTagsToTry} is to be tried.
+     */
+    final String [] languagesToTry;
+
+    /**
+     * The {@link I18nHandler#getEpoch() epoch} these preferences were
+     * negotiated in.
+     */
+    final long epoch;
+
+    /**
+     * The key identifying the preference list for caching results of locale
+     * negotiation. Created lazily.
+     */
+    private transient volatile String matchKey = null;
+
+    /**
+     * The constructor to be used by {@link I18nHandler}.
+     * 
+     * @param userLocaleTags an array of user preferred locales represented by
+     *                       their {@link Locale#toLanguageTag() language tags},
+     *                       best preferred coming first
+     * @param defaultLocaleTag the {@link Locale#toLanguageTag() language tag}
+     *                         for application default locale
+     * @param epoch the {@link I18nHandler#getEpoch() epoch} the preferences
+     *              are negotiated in
+     */
+    LocalePreferences (String [] userLocaleTags, String defaultLocaleTag,
+                       long epoch)
+      {
+        this (userLocaleTags, null, defaultLocaleTag, epoch);
+      } // LocalePreferences
+
+    /**
+     * The constructor to be used by {@link I18nHandler} when quality values
+     * of user preferred locales are known. Locales with zero quality are
+     * not acceptable and are not tried. User preferred locales are normalized
+     * as described above.
+     * 
+     * @param userLocaleTags an array of user preferred locales represented by
+     *                       their {@link Locale#toLanguageTag() language tags},
+     *                       best preferred coming first
+     * @param userWeights quality values of user preferred locales, index by
+     *                    index with {@code userLocaleTags}, or {@code null}
+     * @param defaultLocaleTag the {@link Locale#toLanguageTag() language tag}
+     *                         for application default locale
+     * @param epoch the {@link I18nHandler#getEpoch() epoch} the preferences
+     *              are negotiated in
+     * @throws IllegalArgumentException if {@code userWeights} does not match
+     *                                  {@code userLocaleTags} in length
+     */
+    LocalePreferences (String [] userLocaleTags, float [] userWeights,
+                       String defaultLocaleTag, long epoch)
+        throws IllegalArgumentException
+      {
+        if (userWeights != null &&
+            userWeights.length != userLocaleTags.length)
+          {
+            throw new IllegalArgumentException
+              ("Quality values do not match locales: " +
+               userWeights.length + " vs " + userLocaleTags.length);
+          }
+        this.epoch = epoch;
+        this.defaultLocaleTag = defaultLocaleTag;
+        // normalize user preferred locales, dropping malformed ones,
+        // wildcards, duplicates, and all accepted beyond the limit
+        LinkedHashSet<String> normalizedTags = new LinkedHashSet<String> ();
+        List<Float> normalizedWeights = new ArrayList<Float> ();
+        for (int i = 0;
+             i < userLocaleTags.length &&
+               normalizedTags.size () < MAX_USER_LOCALES;
+             i++)
+          {
+            String localeTag = userLocaleTags [i];
+            if (localeTag == null ||
+                localeTag.length () > MAX_LOCALE_TAG_LENGTH)
+              {
+                continue;
+              }
+            Locale locale = I18nHandler.lookupLocale
+                (localeTag.trim ().replace ('_', '-'));
+            if (locale.getLanguage ().isEmpty () ||
+                !normalizedTags.add (locale.toLanguageTag ()))
+              {
+                continue;
+              }
+            normalizedWeights.add
+              (Float.valueOf ((userWeights != null) ? userWeights [i] : 1.0f));
+          }
+        this.userLocaleTags =
+            normalizedTags.toArray (new String [normalizedTags.size ()]);
+        if (userWeights != null)
+          {
+            this.userWeights = new float [normalizedWeights.size ()];
+            for (int i = 0; i < this.userWeights.length; i++)
+              {
+                this.userWeights [i] = normalizedWeights.get (i).floatValue ();
+              }
+          }
+        else
+          {
+            this.userWeights = null;
+          }
+        // use LinkedHashSet as a collection that preserves addition order and
+        // avoids duplicates
+        LinkedHashSet<String> localeTags = new LinkedHashSet<String> ();
+        for (int i = 0; i < this.userLocaleTags.length; i++)
+          {
+            if (this.getUserWeight (i) > 0.0f)
+              {
+                localeTags.add (this.userLocaleTags [i]);
+              }
+          }
+        localeTags.add (defaultLocaleTag);
+        localeTags.add (Locale.ENGLISH.toLanguageTag ());
+        // expand every locale into its fallback chain, to be tried exactly,
+        // followed by its language key, to be tried approximately
+        List<String> localeTagsToTry = new ArrayList<String> ();
+        List<String> languagesToTry = new ArrayList<String> ();
+        HashSet<String> seenLocaleTags = new HashSet<String> ();
+        HashSet<String> seenLanguages = new HashSet<String> ();
+        for (String localeTag : localeTags)
+          {
+            for (String fallbackTag :
+                   I18nLocaleFallback.getFallbackChain (localeTag))
+              {
+                if (seenLocaleTags.add (fallbackTag))
+                  {
+                    localeTagsToTry.add (fallbackTag);
+                    languagesToTry.add (null);
+                  }
+              }
+            String language = I18nLocaleFallback.languageKey (localeTag);
+            if (seenLanguages.add (language))
+              {
+                localeTagsToTry.add (null);
+                languagesToTry.add (language);
+              }
+          }
+        this.localeTagsToTry =
+            localeTagsToTry.toArray (new String [localeTagsToTry.size ()]);
+        this.languagesToTry =
+            languagesToTry.toArray (new String [languagesToTry.size ()]);
+      } // LocalePreferences
+
+    /**
+     * Get user preferred locales these preferences were created for, as
+     * normalized.
+     * 
+     * @return a copy of the array of user preferred locales represented by
+     *         their {@link Locale#toLanguageTag() language tags}, best
+     *         preferred coming first
+     */
+    public String [] getUserLocaleTags ()
+      {
+        return this.userLocaleTags.clone ();
+      } // getUserLocaleTags
+
+    /**
+     * Get quality values of user preferred locales these preferences were
+     * created for.
+     * 
+     * @return an array of quality values, index by index with
+     *         {@link #getUserLocaleTags()}, {@code 1.0} where not specified
+     */
+    public float [] getUserWeights ()
+      {
+        float [] result = new float [this.userLocaleTags.length];
+        for (int i = 0; i < result.length; i++)
+          {
+            result [i] = this.getUserWeight (i);
+          }
+        return result;
+      } // getUserWeights
+
+    /**
+     * Get the quality value of a user preferred locale.
+     * 
+     * @param index the index of the locale in {@link #userLocaleTags}
+     * @return the quality value, {@code 1.0} if not specified
+     */
+    float getUserWeight (int index)
+      {
+        return (this.userWeights != null) ? this.userWeights [index] : 1.0f;
+      } // getUserWeight
+
+    /**
+     * Get the key identifying the preference list, equal for preferences
+     * with equal user preferred locales, quality values and default locale,
+     * negotiated in the same {@link I18nHandler#getEpoch() epoch}.
+     * 
+     * @return the key
+     */
+    String getMatchKey ()
+      {
+        String matchKey = this.matchKey;
+        if (matchKey == null)
+          {
+            StringBuilder key = new StringBuilder ();
+            for (int i = 0; i < this.userLocaleTags.length; i++)
+              {
+                key.append (this.userLocaleTags [i]).append (";q=")
+                   .append (this.getUserWeight (i)).append (',');
+              }
+            matchKey = key.append (this.defaultLocaleTag).append ('@')
+                          .append (this.epoch).toString ();
+            this.matchKey = matchKey;
+          }
+        return matchKey;
+      } // getMatchKey
+
+    /**
+     * Check whether these preferences are still valid, i.e. have been
+     * negotiated in the current {@link I18nHandler#getEpoch() epoch}.
+     * Preferences kept for reuse become stale whenever the handler is
+     * replaced or its configuration changes.
+     * 
+     * @return {@code true} if the preferences are still valid
+     */
+    public boolean isCurrent ()
+      {
+        return this.epoch == I18nHandler.getEpoch ();
+      } // isCurrent
+
+    /**
+     * A diagnostic {@link Object#toString() toString()} override.
+     * 
+     * @return the overall list of locale tags and language keys to be tried,
+     *         with the latter marked with {@code '~'}
+     */
+    @Override
+    public String toString ()
+      {
+        StringBuilder result = new StringBuilder ("LocalePreferences[");
+        for (int i = 0; i < this.localeTagsToTry.length; i++)
+          {
+            if (i > 0)
+              {
+                result.append (", ");
+              }
+            if (this.localeTagsToTry [i] != null)
+              {
+                result.append (this.localeTagsToTry [i]);
+              }
+            else
+              {
+                result.append ('~').append (this.languagesToTry [i]);
+              }
+          }
+        return result.append (']').toString ();
+      } // toString
+
+  } // class LocalePreferences
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>A shared descriptor of a set of locales available for items, holding
+ * everything about locale matching that depends on the set of locales only;
+ * not intended to be used by applications directly.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Most items of an application are translated into exactly the same
+ * locales, so every distinct set of locales, in the order of supply, is
+ * represented by one interned instance, obtained via
+ * {@link #of(String[])} and referenced by every {@link MessageStore} having
+ * that set. Language keys of the locales and results of locale negotiation
+ * for every preference list are kept here, so that the work and memory spent
+ * on them scale with the number of distinct sets, normally a handful, rather
+ * than with the number of items.</p>
+ * 
+ * <p>Instances are immutable as far as their locales are concerned, and may
+ * be shared between threads. Resolving a locale takes no lock.</p>
+ */
+final class LocaleSet
+  {
+    /**
+     * The maximum number of negotiation results to keep per set, for the
+     * cache not to grow unbounded with arbitrary {@code Accept-Language}
+     * headers. Once exceeded, arbitrary results are evicted down to three
+     * quarters of the limit.
+     */
+    private static final int MAX_CACHED_RESULTS = 1024;
+
+    /**
+     * The maximum number of interned instances. Sets of locales coming
+     * beyond that are represented by instances of their own, not shared.
+     */
+    private static final int MAX_INTERNED_SETS = 4096;
+
+    /**
+     * Interned instances, indexed by lists of their locale tags.
+     */
+    private static final ConcurrentHashMap<List<String>, LocaleSet> sets =
+        new ConcurrentHashMap<List<String>, LocaleSet> ();
+
+    /**
+     * A locale resolved for preferences, to be reused for as long as the same
+     * preferences instance is used.
+     */
+    static final class Resolution
+      {
+        /**
+         * The preferences the locale has been resolved for.
+         */
+        final LocalePreferences preferences;
+
+        /**
+         * The {@link I18nLocaleMatcher#getKey() key} of the locale matcher
+         * the locale has been resolved with, or {@code null} if none.
+         */
+        final String matcherKey;
+
+        /**
+         * The index of the locale in {@link LocaleSet#localeTags}.
+         */
+        final int index;
+
+        Resolution (LocalePreferences preferences, String matcherKey,
+                    int index)
+          {
+            this.preferences = preferences;
+            this.matcherKey = matcherKey;
+            this.index = index;
+          } // Resolution
+      } // class Resolution
+
+    /**
+     * {@link Locale#toLanguageTag() Locale language tags} for the locales of
+     * the set, in the order of their supply.
+     */
+    final String [] localeTags;
+
+    /**
+     * {@link I18nLocaleFallback#languageKey(String) Language keys} of
+     * locales, index by index with {@link #localeTags}, to be used for
+     * approximate locale matching. Created lazily or preset.
+     */
+    private volatile String [] languages = null;
+
+    /**
+     * The last locale resolved for this set, or {@code null} if none.
+     */
+    private volatile Resolution lastResolution = null;
+
+    /**
+     * Indexes of locales resolved, indexed by
+     * {@link LocalePreferences#getMatchKey() keys of preference lists}, with
+     * keys of the {@link I18nLocaleMatcher} used appended if any.
+     */
+    private final ConcurrentHashMap<String, Integer> results =
+        new ConcurrentHashMap<String, Integer> ();
+
+    /**
+     * The constructor to be used by {@link #of(String[])}.
+     * 
+     * @param localeTags locale language tags for the locales of the set
+     */
+    private LocaleSet (String [] localeTags)
+      {
+        this.localeTags = localeTags;
+      } // LocaleSet
+
+    /**
+     * Get the interned instance for a set of locales, or a new instance
+     * should too many sets have been interned already.
+     * 
+     * @param localeTags {@link Locale#toLanguageTag() locale language tags}
+     *                   for the locales, in the order of supply
+     * @return the interned instance
+     */
+    static LocaleSet of (String [] localeTags)
+      {
+        List<String> key = Arrays.asList (localeTags);
+        LocaleSet set = sets.get (key);
+        if (set == null)
+          {
+            LocaleSet newSet = new LocaleSet (localeTags.clone ());
+            if (sets.size () >= MAX_INTERNED_SETS)
+              {
+                return newSet;
+              }
+            set = sets.putIfAbsent (Arrays.asList (newSet.localeTags), newSet);
+            if (set == null)
+              {
+                set = newSet;
+              }
+          }
+        return set;
+      } // of
+
+    /**
+     * Find the index of a locale.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     *                  to look for
+     * @return the index of the locale in {@link #localeTags}, or {@code -1} if
+     *         not available
+     */
+    int indexOf (String localeTag)
+      {
+        for (int i = 0; i < this.localeTags.length; i++)
+          {
+            if (this.localeTags [i].equals (localeTag))
+              {
+                return i;
+              }
+          }
+        return -1;
+      } // indexOf
+
+    /**
+     * Get language keys of locales, extracting them on first use.
+     * 
+     * @return languages, index by index with {@link #localeTags}
+     */
+    String [] getLanguages ()
+      {
+        String [] languages = this.languages;
+        if (languages == null)
+          {
+            languages = new String [this.localeTags.length];
+            for (int i = 0; i < languages.length; i++)
+              {
+                languages [i] =
+                    I18nLocaleFallback.languageKey (this.localeTags [i]);
+              }
+            this.languages = languages;
+          }
+        return languages;
+      } // getLanguages
+
+    /**
+     * Preset language keys of locales, as extracted in advance, e.g. at
+     * compile time, unless extracted already.
+     * 
+     * @param languages languages, index by index with {@link #localeTags}
+     * @throws IllegalArgumentException should the array length not match
+     */
+    void presetLanguages (String [] languages)
+        throws IllegalArgumentException
+      {
+        if (languages.length != this.localeTags.length)
+          {
+            throw new IllegalArgumentException ();
+          }
+        if (this.languages == null)
+          {
+            this.languages = languages;
+          }
+      } // presetLanguages
+
+    /**
+     * Find the index of a locale by its language, to be used for approximate
+     * locale matching. In case of several locales available for one
+     * language, the last one wins.
+     * 
+     * @param language the language key to look for
+     * @return the index of the locale in {@link #localeTags}, or {@code -1} if
+     *         not available
+     */
+    int indexOfLanguage (String language)
+      {
+        String [] languages = this.getLanguages ();
+        for (int i = languages.length - 1; i >= 0; i--)
+          {
+            if (languages [i].equals (language))
+              {
+                return i;
+              }
+          }
+        return -1;
+      } // indexOfLanguage
+
+    /**
+     * Resolve the best locale of the set for given preferences, reusing the
+     * result of an earlier negotiation for the same preference list whenever
+     * available.
+     * 
+     * @param preferences user locale preferences as negotiated beforehand
+     * @param localeMatcher the locale matcher to be used, or {@code null} to
+     *                      walk fallback chains
+     * @return the index of the best locale in {@link #localeTags}
+     * @throws NoSuchElementException should the set happen to be empty
+     */
+    int resolve (LocalePreferences preferences,
+                 I18nLocaleMatcher localeMatcher)
+        throws NoSuchElementException
+      {
+        String matcherKey =
+            (localeMatcher != null) ? localeMatcher.getKey () : null;
+        // matcher keys stay the same instance for as long as the matcher
+        // configuration does not change, so they are compared by reference
+        Resolution resolution = this.lastResolution;
+        if (resolution != null && resolution.preferences == preferences &&
+            resolution.matcherKey == matcherKey)
+          {
+            return resolution.index;
+          }
+        String key = (matcherKey != null) ?
+                       preferences.getMatchKey () + matcherKey :
+                       preferences.getMatchKey ();
+        Integer index = this.results.get (key);
+        if (index == null)
+          {
+            index = Integer.valueOf
+                      ((localeMatcher != null) ?
+                         localeMatcher.score (this.localeTags, preferences) :
+                         I18nHandler.findBestLocaleIndex (this, preferences));
+            this.results.put (key, index);
+            if (this.results.size () > MAX_CACHED_RESULTS)
+              {
+                this.evictResults ();
+              }
+          }
+        this.lastResolution =
+            new Resolution (preferences, matcherKey, index.intValue ());
+        return index.intValue ();
+      } // resolve
+
+    /**
+     * Evict arbitrary negotiation results down to three quarters of
+     * {@link #MAX_CACHED_RESULTS}. Threads evicting concurrently may evict a
+     * few more, which only costs negotiating them anew.
+     */
+    private void evictResults ()
+      {
+        Iterator<String> keys = this.results.keySet ().iterator ();
+        while (keys.hasNext () &&
+               this.results.size () > MAX_CACHED_RESULTS * 3 / 4)
+          {
+            keys.next ();
+            keys.remove ();
+          }
+      } // evictResults
+
+  } // class LocaleSet
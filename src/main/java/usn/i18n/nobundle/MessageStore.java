@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2026, Sergey Ushakov, <s-n-ushakov@yandex.ru>
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ * 
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * See http://opensource.org/licenses/BSD-2-Clause for reference.
+ */
+
+package usn.i18n.nobundle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.Locale;
+
+/**
+ * <p>The base class for storage of presentations of the same message for
+ * different locales, as held by an {@link I18nItem} instance; not intended to
+ * be used by applications directly.</p>
+ * 
+ * @author Sergey Ushakov, s-n-ushakov@yandex.ru
+ * @version 2026-10-19
+ * 
+ * <p>Locales are identified by their {@link Locale#toLanguageTag() language
+ * tags} and addressed by their index in {@link #localeTags}, with messages
+ * themselves being kept by subclasses in whatever form they choose. A store
+ * also holds data derived from its messages, like compiled messages and
+ * messages escaped for markup, so that
+ * replacing the store of an item replaces all of them at once. Data that
+ * depends on the set of locales only, like language keys of locales and
+ * results of locale negotiation, is kept by the {@link LocaleSet} shared by
+ * all stores having the same locales.</p>
+ * 
+ * <p>Stores are immutable as far as their messages are concerned, and may be
+ * shared between threads.</p>
+ */
+abstract class MessageStore
+  {
+    /**
+     * {@link Locale#toLanguageTag() Locale language tags} for the locales
+     * available, in the order of their supply upon construction.
+     */
+    final String [] localeTags;
+
+    /**
+     * The shared descriptor of the set of locales available.
+     */
+    final LocaleSet localeSet;
+
+    /**
+     * Messages compiled for formatting, index by index. Created lazily.
+     */
+    private volatile CompiledMessage [] compiledMessages = null;
+
+    /**
+     * Messages escaped for markup, indexed by {@link Escaping#ordinal()} and
+     * then index by index. Created lazily.
+     */
+    private volatile String [][] escapedMessages = null;
+
+    /**
+     * The failure of compiling messages ahead of use, making every further
+     * attempt to format a message fail fast, or {@code null} if none.
+     */
+    private volatile IllegalArgumentException failure = null;
+
+    /**
+     * The constructor to be used by subclasses.
+     * 
+     * @param localeTags {@link Locale#toLanguageTag() locale language tags}
+     *                   for the locales available
+     */
+    MessageStore (String [] localeTags)
+      {
+        this.localeSet = LocaleSet.of (localeTags);
+        this.localeTags = this.localeSet.localeTags;
+      } // MessageStore
+
+    /**
+     * Get the message for a locale.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @return the message, optionally containing formatting argument
+     *         placeholders
+     */
+    abstract String message (int index);
+
+    /**
+     * Write the message for a locale as UTF-8 bytes. Subclasses keeping
+     * messages as UTF-8 bytes may override it to write them without decoding.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @param output the stream to write to
+     * @throws IOException as thrown by the stream
+     */
+    void writeMessage (int index, OutputStream output)
+        throws IOException
+      {
+        output.write (this.message (index).getBytes (CatalogFile.UTF_8));
+      } // writeMessage
+
+    /**
+     * Get the message for a locale escaped for markup, escaping and caching
+     * it on first use.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @param escaping the markup context to escape for
+     * @return the message, escaped
+     */
+    String escapedMessage (int index, Escaping escaping)
+      {
+        String [][] escapedMessages = this.escapedMessages;
+        if (escapedMessages == null)
+          {
+            escapedMessages = new String [Escaping.values ().length] [];
+            this.escapedMessages = escapedMessages;
+          }
+        String [] messages = escapedMessages [escaping.ordinal ()];
+        if (messages == null)
+          {
+            messages = new String [this.localeTags.length];
+            escapedMessages [escaping.ordinal ()] = messages;
+          }
+        // a race here may only cause a message being escaped twice, with the
+        // same result, so no locking is necessary
+        String message = messages [index];
+        if (message == null)
+          {
+            message = escaping.escape (this.message (index));
+            messages [index] = message;
+          }
+        return message;
+      } // escapedMessage
+
+    /**
+     * Find the index of a locale.
+     * 
+     * @param localeTag the {@link Locale#toLanguageTag() locale language tag}
+     *                  to look for
+     * @return the index of the locale in {@link #localeTags}, or {@code -1} if
+     *         not available
+     */
+    int indexOf (String localeTag)
+      {
+        return this.localeSet.indexOf (localeTag);
+      } // indexOf
+
+    /**
+     * Get language keys of locales, extracting them on first use.
+     * 
+     * @return languages, index by index with {@link #localeTags}
+     */
+    String [] getLanguages ()
+      {
+        return this.localeSet.getLanguages ();
+      } // getLanguages
+
+    /**
+     * Preset language keys of locales, as extracted in advance, e.g. at
+     * compile time, unless extracted already for the same set of locales.
+     * 
+     * @param languages languages, index by index with {@link #localeTags}
+     * @throws IllegalArgumentException should the array length not match
+     */
+    void presetLanguages (String [] languages)
+        throws IllegalArgumentException
+      {
+        this.localeSet.presetLanguages (languages);
+      } // presetLanguages
+
+    /**
+     * Get the message for a locale compiled for formatting, compiling and
+     * caching it on first use.
+     * 
+     * @param index the index of the locale in {@link #localeTags}
+     * @return the compiled message
+     * @throws IllegalArgumentException should the message be not a valid
+     *                                  pattern, or should compiling messages
+     *                                  ahead of use have failed
+     */
+    CompiledMessage compiledMessage (int index)
+        throws IllegalArgumentException
+      {
+        IllegalArgumentException failure = this.failure;
+        if (failure != null)
+          {
+            throw new IllegalArgumentException (failure.getMessage (), failure);
+          }
+        CompiledMessage [] compiledMessages = this.compiledMessages;
+        if (compiledMessages == null)
+          {
+            compiledMessages = new CompiledMessage [this.localeTags.length];
+            this.compiledMessages = compiledMessages;
+          }
+        // a race here may only cause a message being compiled twice, and
+        // compiled messages are immutable, so no locking is necessary
+        CompiledMessage compiledMessage = compiledMessages [index];
+        if (compiledMessage == null)
+          {
+            compiledMessage =
+                new CompiledMessage (this.message (index),
+                                     I18nHandler.localeForLanguageTag
+                                       (this.localeTags [index]));
+            compiledMessages [index] = compiledMessage;
+          }
+        return compiledMessage;
+      } // compiledMessage
+
+    /**
+     * Compile messages for all locales ahead of use. Should any message fail
+     * to compile, the failure is recorded, and every further attempt to
+     * format a message of the store fails fast.
+     * 
+     * @throws IllegalArgumentException should a message be not a valid
+     *                                  pattern
+     */
+    void precompile ()
+        throws IllegalArgumentException
+      {
+        for (int i = 0; i < this.localeTags.length; i++)
+          {
+            try
+              {
+                this.compiledMessage (i);
+              }
+            catch (IllegalArgumentException e)
+              {
+                if (this.failure == null)
+                  {
+                    this.failure = new IllegalArgumentException
+                        ("Malformed pattern for locale " +
+                         this.localeTags [i] + ": \"" + this.message (i) +
+                         "\"", e);
+                  }
+                throw this.failure;
+              }
+          }
+      } // precompile
+
+  } // class MessageStore
@@ -93,9 +93,22 @@
  *         suitable for single-user (e.g. desktop) applications in cases when
  *         it is possible to retrieve user preferences once on application
  *         initialization;</li>
+ *     <li>{@link usn.i18n.nobundle.I18nHandlerForCurrentThread
+ *         I18nHandlerForCurrentThread} &ndash; a ready-to-use handler class
+ *         suitable for multi-user applications that process units of work on
+ *         behalf of one user per thread at a time, virtual threads
+ *         included;</li>
  *     <li>{@link usn.i18n.nobundle.I18nHandlerForServletRequest
  *         I18nHandlerForServletRequest} &ndash; a ready-to-use handler class
- *         suitable for HTTP server applications;</li>
+ *         suitable for HTTP server applications, optionally accompanied by
+ *         {@link usn.i18n.nobundle.I18nFilterForServletRequest
+ *         I18nFilterForServletRequest} to have user preferences negotiated
+ *         once per request up front;</li>
+ *     <li>{@link usn.i18n.nobundle.I18nHandlerForHttpSession
+ *         I18nHandlerForHttpSession} &ndash; a ready-to-use handler class
+ *         suitable for HTTP server applications with user preferences kept
+ *         in {@link javax.servlet.http.HttpSession HttpSession} across
+ *         requests;</li>
  *     </ul>
  *     you need just to instantiate a handler of your choice, and it will
  *     establish itself as an application-wide singleton by itself;</li>
@@ -127,7 +140,45 @@
  *     href="http://www.slf4j.org/">SLF4J</a> classes for logging:
  *     {@link usn.i18n.nobundle.I15dLogger I15dLogger} and appropriate
  *     factory
- *     {@link usn.i18n.nobundle.I15dLoggerFactory I15dLoggerFactory}.</li>
+ *     {@link usn.i18n.nobundle.I15dLoggerFactory I15dLoggerFactory};</li>
+ * <li>optional runtime facilities:
+ *   <ul>
+ *     <li>{@link usn.i18n.nobundle.I18nCatalogOverlay I18nCatalogOverlay}
+ *         &ndash; external translations laid over compiled-in messages and
+ *         reloaded at runtime.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nCatalogIndex I18nCatalogIndex}
+ *         &ndash; catalogs of items validated at compile time by the
+ *         annotation processor from the {@code usn-i18n-nobundle-processor}
+ *         module.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nCatalogSnapshot I18nCatalogSnapshot}
+ *         &ndash; compact binary snapshots of messages, for items declared
+ *         without compiled-in messages.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nColdCatalog I18nColdCatalog}
+ *         &ndash; compressed messages materialized per locale on demand.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nMessagePool I18nMessagePool}
+ *         &ndash; deduplication of messages decoded from catalogs.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nItemRegistry I18nItemRegistry}
+ *         &ndash; all items of the JVM with dense IDs and stable names.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nWarmUp I18nWarmUp}
+ *         &ndash; parallel startup warm-up of caches for all items.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nPatternCompiler I18nPatternCompiler}
+ *         &ndash; background validation and compilation of patterns.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nLocaleFallback I18nLocaleFallback}
+ *         &ndash; configurable fallback chains of locales.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nLocaleMatcher I18nLocaleMatcher}
+ *         &ndash; locale matching by weighted language distance.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nItemGroup I18nItemGroup}
+ *         &ndash; resolution of items rendered together in one pass.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nBulkRenderer I18nBulkRenderer}
+ *         &ndash; parallel rendering for many recipients at once.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nEnum I18nEnum}
+ *         &ndash; localized labels of enum constants.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nItemSorter I18nItemSorter}
+ *         &ndash; items listed in the collation order of their messages.</li>
+ *     <li>{@link usn.i18n.nobundle.I18nSearchIndex I18nSearchIndex}
+ *         &ndash; prefix and substring search over localized messages.</li>
+ *     </ul>
+ *     </li>
  * </ul>
  * 
  * <p>An example of "hello world" application:</p>
@@ -145,10 +196,10 @@
  *     // only 'I18nItemAny' message items are currently supported for logger
  *     static I18nItemAny LOG_MSG_HELLO = new I18nItemAny
  *       (lm ("en", "Hello World!"),
- *        lm ("fr_CA", "Bonjour Monde!"));
+ *        lm ("fr-CA", "Bonjour Monde!"));
  *     public static I18nItem0 USER_MESSAGE_1 = new I18nItem0
  *         (lm ("en", "That's cool!"),
- *          lm ("fr_CA", "C'est le pied!"));
+ *          lm ("fr-CA", "C'est le pied!"));
  * 
  *     public static void main (String [] args)
  *       {